@@ -0,0 +1,86 @@
+package benchmarks;
+
+import functions.*;
+
+import java.lang.management.ManagementFactory;
+
+// Проверка того, что методы доступа к точкам без создания объектов действительно ничего не выделяют:
+// после прогрева число байт, выделенных текущим потоком за серию вызовов, должно быть равно нулю.
+// Запуск: java benchmarks.AllocationCheck; при найденных выделениях код возврата 1.
+// Нужна JVM HotSpot (счётчик com.sun.management.ThreadMXBean)
+public class AllocationCheck {
+
+    private static final int POINTS = 1_000;
+    private static final int WARMUP = 20_000;
+    private static final int CALLS = 10_000;
+
+    private interface Factory {
+        TabulatedFunction create(double leftX, double rightX, double[] values);
+    }
+
+    private interface Operation {
+        void run(TabulatedFunction function, int i);
+    }
+
+    private static final String[] NAMES = {
+            "ArrayTabulatedFunction",
+            "LinkedListTabulatedFunction",
+            "DoubleArrayTabulatedFunction",
+            "ConcurrentTabulatedFunction",
+            "TreeTabulatedFunction",
+            "ImmutableTabulatedFunction"
+    };
+    private static final Factory[] FACTORIES = {
+            ArrayTabulatedFunction::new,
+            LinkedListTabulatedFunction::new,
+            DoubleArrayTabulatedFunction::new,
+            ConcurrentTabulatedFunction::new,
+            TreeTabulatedFunction::new,
+            (leftX, rightX, values) -> new ArrayTabulatedFunction(leftX, rightX, values).freeze()
+    };
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private static double sum; // сюда складываются координаты, чтобы JIT не удалил вызовы
+
+    public static void main(String[] args) {
+        double[] values = new double[POINTS];
+        for (int i = 0; i < POINTS; i++) {
+            values[i] = Math.sin(i * 0.01);
+        }
+        final FunctionPoint holder = new FunctionPoint();
+        final double[] xs = new double[POINTS];
+        final double[] ys = new double[POINTS];
+        final PointConsumer consumer = (x, y) -> sum += x + y;
+
+        boolean failed = false;
+        for (int f = 0; f < FACTORIES.length; f++) {
+            TabulatedFunction function = FACTORIES[f].create(0, POINTS - 1, values);
+            failed |= check("getPoint(index, holder)", NAMES[f], function, (func, i) -> {
+                func.getPoint(i % POINTS, holder);
+                sum += holder.getter_y();
+            });
+            failed |= check("copyPoints", NAMES[f], function, (func, i) -> func.copyPoints(xs, ys));
+            failed |= check("forEachPoint", NAMES[f], function, (func, i) -> func.forEachPoint(consumer));
+        }
+        if (failed) {
+            System.exit(1);
+        }
+    }
+
+    private static boolean check(String operation, String implementation, TabulatedFunction function, Operation op) {
+        for (int i = 0; i < WARMUP; i++) {
+            op.run(function, i);
+        }
+        long before = THREADS.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < CALLS; i++) {
+            op.run(function, i);
+        }
+        long allocated = THREADS.getCurrentThreadAllocatedBytes() - before;
+        double perCall = (double) allocated / CALLS;
+        System.out.printf("%s;%s;%.2f bytes/op;%s%n", operation, implementation, perCall,
+                allocated == 0 ? "OK" : "FAIL");
+        return allocated != 0;
+    }
+}
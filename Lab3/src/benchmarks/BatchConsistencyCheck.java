@@ -0,0 +1,157 @@
+package benchmarks;
+
+import functions.*;
+
+import java.util.Arrays;
+import java.util.Random;
+
+// Проверка того, что пакетное вычисление getFunctionValues даёт в точности те же значения,
+// что и getFunctionValue для каждой точки по отдельности (сравниваются биты double, NaN равен NaN).
+// Проверяются равномерные и неравномерные сетки, неупорядоченные абсциссы, точки вне области
+// определения и граничные значения: узлы, соседние с ними double, границы области, NaN и бесконечности.
+// Запуск: java benchmarks.BatchConsistencyCheck; при найденных расхождениях код возврата 1
+public class BatchConsistencyCheck {
+
+    private static final int POINTS = 1_000;
+    private static final int RANDOM_XS = 100_000;
+    private static final double SENTINEL = -12345.678; // значение вне диапазона пакета не должно меняться
+
+    private interface Factory {
+        TabulatedFunction create(ArrayTabulatedFunction source);
+    }
+
+    private static final String[] NAMES = {
+            "ArrayTabulatedFunction",
+            "LinkedListTabulatedFunction",
+            "DoubleArrayTabulatedFunction",
+            "ConcurrentTabulatedFunction",
+            "TreeTabulatedFunction",
+            "ImmutableTabulatedFunction"
+    };
+    private static final Factory[] FACTORIES = {
+            source -> source,
+            source -> {
+                double[] xs = new double[source.getPointsCount()];
+                double[] ys = new double[source.getPointsCount()];
+                source.copyPoints(xs, ys);
+                return new LinkedListTabulatedFunction(xs, ys);
+            },
+            DoubleArrayTabulatedFunction::new,
+            ConcurrentTabulatedFunction::new,
+            TreeTabulatedFunction::new,
+            ArrayTabulatedFunction::freeze
+    };
+
+    public static void main(String[] args) {
+        Random random = new Random(42);
+        double[] values = new double[POINTS];
+        for (int i = 0; i < POINTS; i++) {
+            values[i] = Math.sin(i * 0.01) * 100;
+        }
+
+        String[] grids = {"uniform", "uniform-inexact-step", "non-uniform"};
+        ArrayTabulatedFunction[] sources = {
+                new ArrayTabulatedFunction(0, POINTS - 1, values),
+                // шаг 0.1 не представим точно, номер интервала легко ошибается на единицу
+                new ArrayTabulatedFunction(0.1, 0.1 + (POINTS - 1) * 0.1, values),
+                nonUniform(random, values)
+        };
+
+        boolean failed = false;
+        for (int g = 0; g < sources.length; g++) {
+            double[] xs = queryPoints(sources[g], random);
+            for (int f = 0; f < FACTORIES.length; f++) {
+                failed |= check(grids[g], NAMES[f], FACTORIES[f].create(sources[g]), xs);
+            }
+        }
+        if (failed) {
+            System.exit(1);
+        }
+    }
+
+    private static ArrayTabulatedFunction nonUniform(Random random, double[] values) {
+        double[] xs = new double[values.length];
+        double x = -3;
+        for (int i = 0; i < xs.length; i++) {
+            xs[i] = x;
+            x += 0.001 + random.nextDouble() * (i % 2 == 0 ? 0.01 : 2);
+        }
+        return new ArrayTabulatedFunction(xs, values.clone());
+    }
+
+    // Случайные абсциссы в произвольном порядке (в том числе вне области определения)
+    // и граничные значения вокруг каждого узла
+    private static double[] queryPoints(TabulatedFunction function, Random random) {
+        int count = function.getPointsCount();
+        double left = function.getLeftDomainBorder();
+        double right = function.getRightDomainBorder();
+        double span = right - left;
+
+        double[] xs = new double[RANDOM_XS + count * 7 + 9];
+        int n = 0;
+        for (int i = 0; i < RANDOM_XS; i++) {
+            xs[n++] = left - span * 0.1 + random.nextDouble() * span * 1.2;
+        }
+        for (int i = 0; i < count; i++) {
+            double node = function.getPointX(i);
+            xs[n++] = node;
+            xs[n++] = Math.nextDown(node);
+            xs[n++] = Math.nextUp(node);
+            xs[n++] = node - 1e-11; // совпадает с узлом с точностью Comparison
+            xs[n++] = node + 1e-11;
+            xs[n++] = node - 1e-9;  // уже не совпадает
+            xs[n++] = node + 1e-9;
+        }
+        xs[n++] = left;
+        xs[n++] = right;
+        xs[n++] = Math.nextDown(left);
+        xs[n++] = Math.nextUp(right);
+        xs[n++] = Double.NaN;
+        xs[n++] = Double.POSITIVE_INFINITY;
+        xs[n++] = Double.NEGATIVE_INFINITY;
+        xs[n++] = 0.0;
+        xs[n++] = -0.0;
+
+        // перемешивание, чтобы соседние запросы не шли по возрастанию
+        for (int i = xs.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            double t = xs[i];
+            xs[i] = xs[j];
+            xs[j] = t;
+        }
+        return xs;
+    }
+
+    private static boolean check(String grid, String implementation, TabulatedFunction function, double[] xs) {
+        double[] batch = new double[xs.length];
+        function.getFunctionValues(xs, batch);
+        int mismatches = 0;
+        double firstX = Double.NaN;
+        for (int i = 0; i < xs.length; i++) {
+            if (Double.doubleToLongBits(batch[i]) != Double.doubleToLongBits(function.getFunctionValue(xs[i]))) {
+                if (mismatches++ == 0) {
+                    firstX = xs[i];
+                }
+            }
+        }
+
+        // пакет из середины массива: значения за его пределами не должны меняться
+        int offset = xs.length / 3;
+        int length = xs.length / 3;
+        double[] part = new double[xs.length];
+        Arrays.fill(part, SENTINEL);
+        function.getFunctionValues(xs, part, offset, length);
+        for (int i = 0; i < xs.length; i++) {
+            double expected = i >= offset && i < offset + length ? batch[i] : SENTINEL;
+            if (Double.doubleToLongBits(part[i]) != Double.doubleToLongBits(expected)) {
+                if (mismatches++ == 0) {
+                    firstX = xs[i];
+                }
+            }
+        }
+
+        System.out.printf("%s;%s;%d mismatches;%s%s%n", grid, implementation, mismatches,
+                mismatches == 0 ? "OK" : "FAIL", mismatches == 0 ? "" : ";first x=" + firstX);
+        return mismatches != 0;
+    }
+}
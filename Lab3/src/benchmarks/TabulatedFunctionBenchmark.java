@@ -0,0 +1,189 @@
+package benchmarks;
+
+import functions.*;
+
+// Микробенчмарки реализаций TabulatedFunction.
+// Запуск: java benchmarks.TabulatedFunctionBenchmark [размеры через запятую] [время замера одного теста, мс]
+// Результат печатается в формате CSV (тест;реализация;точек;нс/оп), чтобы его было удобно
+// сохранять в файл и сравнивать между коммитами
+public class TabulatedFunctionBenchmark {
+
+    private static final int[] DEFAULT_SIZES = {10, 1_000, 100_000, 1_000_000};
+    private static final int QUERIES = 4096; // размер заранее подготовленного набора аргументов
+    private static final int BATCH = 256; // размер пачки для getFunctionValues
+
+    private interface Factory {
+        TabulatedFunction create(double leftX, double rightX, double[] values);
+    }
+
+    private interface Operation {
+        // выполняет одну операцию с номером i (0 <= i < длины цикла замера)
+        // и возвращает значение, которое нельзя выбросить
+        double run(TabulatedFunction function, int i) throws Exception;
+    }
+
+    private static final String[] NAMES = {
+            "ArrayTabulatedFunction",
+            "LinkedListTabulatedFunction",
+            "DoubleArrayTabulatedFunction",
+            "ConcurrentTabulatedFunction",
+            "TreeTabulatedFunction",
+            "ImmutableTabulatedFunction",
+            "OffHeapTabulatedFunction"
+    };
+    private static final Factory[] FACTORIES = {
+            ArrayTabulatedFunction::new,
+            LinkedListTabulatedFunction::new,
+            DoubleArrayTabulatedFunction::new,
+            ConcurrentTabulatedFunction::new,
+            TreeTabulatedFunction::new,
+            (leftX, rightX, values) -> new ArrayTabulatedFunction(leftX, rightX, values).freeze(),
+            OffHeapTabulatedFunction::new
+    };
+
+    private static volatile double sink; // сюда складываются результаты, чтобы JIT не удалил вычисления
+    private static long seed = 42;
+
+    public static void main(String[] args) throws Exception {
+        int[] sizes = DEFAULT_SIZES;
+        long timeMillis = 300;
+        if (args.length > 0) {
+            String[] parts = args[0].split(",");
+            sizes = new int[parts.length];
+            for (int i = 0; i < parts.length; i++) {
+                sizes[i] = Integer.parseInt(parts[i].trim());
+            }
+        }
+        if (args.length > 1) {
+            timeMillis = Long.parseLong(args[1]);
+        }
+
+        System.out.println("benchmark;implementation;points;ns/op");
+        for (int size : sizes) {
+            for (int f = 0; f < FACTORIES.length; f++) {
+                runAll(NAMES[f], FACTORIES[f], size, timeMillis);
+            }
+        }
+    }
+
+    private static void runAll(String name, Factory factory, int size, long timeMillis) throws Exception {
+        double leftX = 0;
+        double rightX = size - 1;
+        double[] values = new double[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = Math.sin(i * 0.001);
+        }
+        TabulatedFunction function = factory.create(leftX, rightX, values);
+
+        // случайные абсциссы и номера точек
+        final double[] randomX = new double[QUERIES];
+        final int[] randomIndex = new int[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            randomX[i] = leftX + nextDouble() * (rightX - leftX);
+            randomIndex[i] = 1 + (int) (nextDouble() * (size - 2));
+        }
+        // последовательные абсциссы: проход по всей области с шагом в четверть интервала
+        final double sequentialStep = 0.25;
+        final int sequentialCount = (int) ((rightX - leftX) / sequentialStep);
+
+        report("getFunctionValue.random", name, size, measure(function, timeMillis,
+                (func, i) -> func.getFunctionValue(randomX[i])));
+        report("getFunctionValue.sequential", name, size, measure(function, timeMillis, sequentialCount,
+                (func, i) -> func.getFunctionValue(leftX + i * sequentialStep)));
+        // пакетное вычисление: время пересчитывается на один аргумент
+        final double[] out = new double[QUERIES];
+        report("getFunctionValues.random", name, size, measure(function, timeMillis, QUERIES / BATCH,
+                (func, i) -> {
+                    int offset = i * BATCH;
+                    func.getFunctionValues(randomX, out, offset, BATCH);
+                    return out[offset];
+                }) / BATCH);
+        report("getPoint", name, size, measure(function, timeMillis,
+                (func, i) -> func.getPoint(randomIndex[i]).getter_y()));
+        report("getPointY", name, size, measure(function, timeMillis,
+                (func, i) -> func.getPointY(randomIndex[i])));
+        report("setPointY", name, size, measure(function, timeMillis,
+                (func, i) -> {
+                    func.setPointY(randomIndex[i], i);
+                    return i;
+                }));
+
+        // addPoint и deletePoint меняют размер, поэтому каждая операция сразу откатывается:
+        // замеряются пары "добавить + удалить" и "удалить + добавить".
+        // Эти тесты идут последними, т.к. сбрасывают признак равномерной сетки
+        report("addPoint+deletePoint", name, size, measure(function, timeMillis,
+                (func, i) -> {
+                    double x = randomX[i];
+                    int index = (int) x + 1; // на сетке с шагом 1 новая точка встаёт после точки с номером (int) x
+                    if (x == (int) x) {
+                        return 0; // совпадение с узлом сетки: пропускаем
+                    }
+                    func.addPoint(new FunctionPoint(x, 0));
+                    func.deletePoint(index);
+                    return index;
+                }));
+        report("deletePoint+addPoint", name, size, measure(function, timeMillis,
+                (func, i) -> {
+                    int index = randomIndex[i];
+                    double x = func.getPointX(index);
+                    double y = func.getPointY(index);
+                    func.deletePoint(index);
+                    func.addPoint(new FunctionPoint(x, y));
+                    return y;
+                }));
+    }
+
+    // Операции по заранее подготовленным аргументам: номер операции пробегает 0 .. QUERIES - 1
+    private static double measure(TabulatedFunction function, long timeMillis, Operation operation)
+            throws Exception {
+        return measure(function, timeMillis, QUERIES, operation);
+    }
+
+    // Прогрев в течение половины времени замера, затем сам замер; результат - наносекунд на операцию.
+    // Номер операции пробегает по кругу 0 .. cycle - 1, поэтому не переполняется на долгих замерах.
+    // Для неподдерживаемой операции (например, изменения неизменяемой функции) результат - NaN
+    private static double measure(TabulatedFunction function, long timeMillis, int cycle, Operation operation)
+            throws Exception {
+        try {
+            run(function, timeMillis / 2, cycle, operation);
+            return run(function, timeMillis, cycle, operation);
+        } catch (UnsupportedOperationException e) {
+            return Double.NaN;
+        }
+    }
+
+    private static double run(TabulatedFunction function, long timeMillis, int cycle, Operation operation)
+            throws Exception {
+        long deadline = System.nanoTime() + timeMillis * 1_000_000;
+        long start = System.nanoTime();
+        long operations = 0;
+        int index = 0;
+        double accumulator = 0;
+        long now;
+        do {
+            // время проверяется пачками, чтобы вызов nanoTime не искажал быстрые операции
+            for (int k = 0; k < 64; k++) {
+                accumulator += operation.run(function, index);
+                if (++index == cycle) {
+                    index = 0;
+                }
+            }
+            operations += 64;
+            now = System.nanoTime();
+        } while (now < deadline);
+        sink = accumulator;
+        return (double) (now - start) / operations;
+    }
+
+    private static void report(String benchmark, String implementation, int size, double nanosPerOperation) {
+        System.out.printf("%s;%s;%d;%.1f%n", benchmark, implementation, size, nanosPerOperation);
+    }
+
+    // xorshift - воспроизводимые псевдослучайные числа в [0, 1)
+    private static double nextDouble() {
+        seed ^= seed << 13;
+        seed ^= seed >>> 7;
+        seed ^= seed << 17;
+        return (seed >>> 11) * 0x1.0p-53;
+    }
+}
@@ -4,6 +4,8 @@ public class ArrayTabulatedFunction implements TabulatedFunction {
 
     private FunctionPoint[] points; //массив типа FunctionPoint
     private int pointsCount;
+    private boolean uniform; // точки расположены с постоянным шагом
+    private double step; // шаг равномерной сетки (имеет смысл только при uniform == true)
 
     public static boolean Comparison(double a, double b) {  //функция сравнения чисел c плавающей точкой
         final double EPSILON = 1E-10f;
@@ -23,6 +25,8 @@ public class ArrayTabulatedFunction implements TabulatedFunction {
         this.points = new FunctionPoint[pointsCount + 10];
 
         double step = (rightX - leftX) / (pointsCount - 1);
+        this.uniform = true;
+        this.step = step;
 
         for (int i = 0; i < pointsCount; i++) {
             double x = leftX + i * step;
@@ -43,12 +47,59 @@ public class ArrayTabulatedFunction implements TabulatedFunction {
         this.points = new FunctionPoint[pointsCount + 10]; // делаем с запасом для 6 задания с методом добавления точек
 
         double step = (rightX - leftX) / (pointsCount - 1);
+        this.uniform = true;
+        this.step = step;
 
         for (int i = 0; i < pointsCount; i++) {
             double x = leftX + i * step;
             points[i] = new FunctionPoint(x, values[i]);
         }
     }
+    // Создание по произвольному набору точек (абсциссы должны строго возрастать)
+    public ArrayTabulatedFunction(double[] xs, double[] ys)
+            throws IllegalArgumentException {
+        if (xs.length != ys.length) {
+            throw new IllegalArgumentException("Количество абсцисс и ординат не совпадает");
+        }
+        if (xs.length < 2) {
+            throw new IllegalArgumentException("Количество точек меньше 2");
+        }
+
+        this.pointsCount = xs.length;
+        this.points = new FunctionPoint[pointsCount + 10];
+
+        for (int i = 0; i < pointsCount; i++) {
+            if (i > 0 && (xs[i] < xs[i - 1] || Comparison(xs[i], xs[i - 1]))) {
+                throw new IllegalArgumentException("Абсциссы точек должны строго возрастать");
+            }
+            points[i] = new FunctionPoint(xs[i], ys[i]);
+        }
+        detectUniform();
+    }
+
+    // Проверка, что точки лежат на равномерной сетке, какую строят конструкторы по границам.
+    // Небольшое отклонение от сетки допустимо: findIntervalIndex всё равно уточняет номер по точкам
+    private void detectUniform() {
+        double left = points[0].getter_x();
+        double step = (points[pointsCount - 1].getter_x() - left) / (pointsCount - 1);
+        uniform = true;
+        for (int i = 1; i < pointsCount - 1 && uniform; i++) {
+            uniform = Math.abs(points[i].getter_x() - (left + i * step)) <= step * 1e-6;
+        }
+        this.step = step;
+    }
+
+    // Неизменяемая копия без запаса места и без объектов FunctionPoint
+    public ImmutableTabulatedFunction freeze() {
+        double[] xs = new double[pointsCount];
+        double[] ys = new double[pointsCount];
+        for (int i = 0; i < pointsCount; i++) {
+            xs[i] = points[i].getter_x();
+            ys[i] = points[i].getter_y();
+        }
+        return new ImmutableTabulatedFunction(xs, ys);
+    }
+
     public double getLeftDomainBorder(){
         return points[0].getter_x();
     }
@@ -56,37 +107,119 @@ public class ArrayTabulatedFunction implements TabulatedFunction {
         return points[pointsCount-1].getter_x();
     }
 
+    // Чтение только ищет по массиву, копия не нужна
+    public TabulatedFunction readSafe() {
+        return this;
+    }
+
     public double getFunctionValue(double x){
 
-        if (x < getLeftDomainBorder() || x > getRightDomainBorder()) {
+        // !(... ) вместо (x < ... || x > ...), чтобы NaN тоже отсекался здесь
+        if (!(x >= getLeftDomainBorder() && x <= getRightDomainBorder())) {
             return Double.NaN;
         }
 
-        // Поиск интервала, в который попадает x
-        for (int i = 0; i < pointsCount - 1; i++) {
-            double x1 = points[i].getter_x();
-            double x2 = points[i + 1].getter_x();
+        return valueInInterval(findIntervalIndex(x), x);
+    }
 
-            // Если x совпадает с одной из точек
-            if (Comparison(x, x1)) {
-                return points[i].getter_y();
+    // Пакетное вычисление. Для возрастающих xs интервал ищется сдвигом от предыдущего,
+    // поэтому весь проход занимает O(n + m) вместо O(m log n)
+    public void getFunctionValues(double[] xs, double[] out, int offset, int length) {
+        if (offset < 0 || length < 0 || offset + length > xs.length || offset + length > out.length) {
+            throw new IndexOutOfBoundsException("Диапазон выходит за границы массива");
+        }
+
+        double left = getLeftDomainBorder();
+        double right = getRightDomainBorder();
+        int i = 0;
+        double previous = left;
+
+        for (int k = offset; k < offset + length; k++) {
+            double x = xs[k];
+            if (!(x >= left && x <= right)) {
+                out[k] = Double.NaN;
+                continue;
             }
-            if (Comparison(x, x2)) {
-                return points[i + 1].getter_y();
+
+            if (!uniform && x >= previous) {
+                // несколько шагов вперёд от предыдущего интервала, при большом скачке - обычный поиск
+                // (на равномерной сетке номер интервала и так вычисляется сразу)
+                int steps = 0;
+                while (i < pointsCount - 1 && points[i + 1].getter_x() <= x && steps < 8) {
+                    i++;
+                    steps++;
+                }
+                if (i < pointsCount - 1 && points[i + 1].getter_x() <= x) {
+                    i = findIntervalIndex(x);
+                }
+            } else {
+                i = findIntervalIndex(x);
             }
+            previous = x;
 
-            // Если x лежит между точками i и i+1
-            if (x > x1 && x < x2) {
-                double y1 = points[i].getter_y();
-                double y2 = points[i + 1].getter_y();
+            out[k] = valueInInterval(i, x);
+        }
+    }
+
+    // Значение в точке x, если x_i <= x < x_i+1 (или x = x_i для последней точки)
+    private double valueInInterval(int i, double x) {
+        double x1 = points[i].getter_x();
 
-                // Линейная интерполяция: y = y1 + (y2 - y1) * (x - x1) / (x2 - x1)
-                return y1 + (y2 - y1) * (x - x1) / (x2 - x1);
+        // Если x совпадает с одной из точек (берём самую левую из подходящих, как при полном переборе)
+        if (Comparison(x, x1)) {
+            while (i > 0 && Comparison(x, points[i - 1].getter_x())) {
+                i--;
             }
+            return points[i].getter_y();
+        }
+        if (i == pointsCount - 1) {
+            return Double.NaN;
         }
+        double x2 = points[i + 1].getter_x();
+        if (Comparison(x, x2)) {
+            return points[i + 1].getter_y();
+        }
+
+        double y1 = points[i].getter_y();
+        double y2 = points[i + 1].getter_y();
 
-        return Double.NaN;
+        // Линейная интерполяция: y = y1 + (y2 - y1) * (x - x1) / (x2 - x1)
+        return y1 + (y2 - y1) * (x - x1) / (x2 - x1);
     }
+
+    // Номер наибольшей точки с абсциссой <= x (x должен лежать в области определения)
+    private int findIntervalIndex(double x) {
+        if (uniform) {
+            // на равномерной сетке номер считается сразу, затем поправляется на ошибку округления
+            int i = (int) ((x - points[0].getter_x()) / step);
+            if (i < 0) {
+                i = 0;
+            } else if (i > pointsCount - 1) {
+                i = pointsCount - 1;
+            }
+            while (i > 0 && points[i].getter_x() > x) {
+                i--;
+            }
+            while (i < pointsCount - 1 && points[i + 1].getter_x() <= x) {
+                i++;
+            }
+            return i;
+        }
+
+        // бинарный поиск
+        int low = 0;
+        int high = pointsCount - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (points[mid].getter_x() <= x) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
     public int getPointsCount() {
         return pointsCount;
     }
@@ -97,6 +230,31 @@ public class ArrayTabulatedFunction implements TabulatedFunction {
         return new FunctionPoint(points[index]);
     }
 
+    public void getPoint(int index, FunctionPoint holder) throws FunctionPointIndexOutOfBoundsException {
+        if (index<0 || index>=pointsCount){
+            throw new FunctionPointIndexOutOfBoundsException(index);
+        }
+        holder.setter_x(points[index].getter_x());
+        holder.setter_y(points[index].getter_y());
+    }
+
+    public int copyPoints(double[] xs, double[] ys) {
+        if (pointsCount > xs.length || pointsCount > ys.length) {
+            throw new IndexOutOfBoundsException("Диапазон выходит за границы массива");
+        }
+        for (int i = 0; i < pointsCount; i++) {
+            xs[i] = points[i].getter_x();
+            ys[i] = points[i].getter_y();
+        }
+        return pointsCount;
+    }
+
+    public void forEachPoint(PointConsumer action) {
+        for (int i = 0; i < pointsCount; i++) {
+            action.accept(points[i].getter_x(), points[i].getter_y());
+        }
+    }
+
     public void setPoint(int index, FunctionPoint point)
             throws FunctionPointIndexOutOfBoundsException, InappropriateFunctionPointException {
         if (index<0 || index >= pointsCount){
@@ -113,6 +271,11 @@ public class ArrayTabulatedFunction implements TabulatedFunction {
             throw new InappropriateFunctionPointException("X лежит вне определенного интервала");
         }
 
+        // при сдвиге абсциссы сетка перестаёт быть равномерной
+        if (point.getter_x() != points[index].getter_x()) {
+            uniform = false;
+        }
+
         // копия точки
         points[index] = new FunctionPoint(point);
     }
@@ -133,6 +296,9 @@ public class ArrayTabulatedFunction implements TabulatedFunction {
         if (index < pointsCount - 1 && (x > points[index + 1].getter_x()||Comparison(x, points[index + 1].getter_x()))) {
             throw new InappropriateFunctionPointException("X лежит вне определенного интервала");
         }
+        if (x != points[index].getter_x()) {
+            uniform = false;
+        }
         points[index].setter_x(x);
     }
 
@@ -158,6 +324,10 @@ public class ArrayTabulatedFunction implements TabulatedFunction {
         if(pointsCount<3){
             throw new IllegalStateException("Количество точек меньше 3");
         }
+        // удаление крайней точки сохраняет равномерность сетки
+        if (index != 0 && index != pointsCount - 1) {
+            uniform = false;
+        }
         System.arraycopy(points, index + 1, points, index, pointsCount - index - 1);
         pointsCount--;
     }
@@ -180,6 +350,9 @@ public class ArrayTabulatedFunction implements TabulatedFunction {
             FunctionPoint[] newArray = new FunctionPoint[(int)(points.length * 2) + 1];
             System.arraycopy(points, 0, newArray, 0, pointsCount);
             points = newArray;
+            if (TabulatedFunctionMetrics.ENABLED) {
+                TabulatedFunctionMetrics.ARRAY_RESIZES.increment();
+            }
         }
 
         // двигаем точки вправо чтобы освободить место
@@ -190,5 +363,34 @@ public class ArrayTabulatedFunction implements TabulatedFunction {
         // вставляем копию новой точки
         points[index_insert] = new FunctionPoint(point);
         pointsCount++;
+        uniform = false;
+    }
+
+    // Добавление пачки точек одним слиянием за O(n + k log k) вместо k вызовов addPoint.
+    // Если хотя бы одна точка не подходит, функция не меняется
+    public void addPoints(double[] xs, double[] ys) throws InappropriateFunctionPointException {
+        double[] addXs = xs.clone();
+        double[] addYs = ys.clone();
+        TabulatedFunctionArrays.sortBatch(addXs, addYs);
+
+        FunctionPoint[] merged = new FunctionPoint[pointsCount + addXs.length + 10];
+        int i = 0;
+        int k = 0;
+        int o = 0;
+        boolean previousFromBatch = false;
+        while (i < pointsCount || k < addXs.length) {
+            boolean fromBatch = i == pointsCount || (k < addXs.length && addXs[k] < points[i].getter_x());
+            double x = fromBatch ? addXs[k] : points[i].getter_x();
+            // совпадение возможно только между соседями, из которых хотя бы один из пачки
+            if (o > 0 && (fromBatch || previousFromBatch) && Comparison(merged[o - 1].getter_x(), x)) {
+                throw new InappropriateFunctionPointException("Точка с такой координатой x уже есть");
+            }
+            merged[o++] = fromBatch ? new FunctionPoint(x, addYs[k++]) : points[i++];
+            previousFromBatch = fromBatch;
+        }
+
+        points = merged;
+        pointsCount = o;
+        detectUniform();
     }
 }
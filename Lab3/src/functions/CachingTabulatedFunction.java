@@ -0,0 +1,222 @@
+package functions;
+
+// Табулированная функция с кэшем вычисленных значений getFunctionValue.
+// Кэш - хеш-таблица с открытой адресацией на массивах примитивов (ключ - биты double абсциссы),
+// размер ограничен, при переполнении вытесняется запись по алгоритму CLOCK ("второй шанс").
+// Любое изменение точек через этот объект сбрасывает кэш за O(1) (сменой поколения записей).
+// Изменять обёрнутую функцию нужно только через этот объект. Класс не потокобезопасен
+public class CachingTabulatedFunction implements TabulatedFunction {
+
+    private final TabulatedFunction function;
+
+    private final int maxEntries;
+    private final int mask;          // размер таблицы - степень двойки, не меньше 2 * maxEntries
+    private final long[] keys;       // Double.doubleToLongBits(x)
+    private final double[] values;
+    private final int[] generations; // запись занята, если её поколение равно текущему
+    private final boolean[] referenced; // бит обращения для CLOCK
+    private int generation = 1;
+    private int size;
+    private int clockHand;
+
+    private long hits;
+    private long misses;
+
+    public CachingTabulatedFunction(TabulatedFunction function, int maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("Размер кэша меньше 1");
+        }
+        if (maxEntries > 1 << 29) {
+            throw new IllegalArgumentException("Слишком большой размер кэша");
+        }
+        this.function = function;
+        this.maxEntries = maxEntries;
+
+        int capacity = Integer.highestOneBit(maxEntries * 2 - 1) << 1;
+        this.mask = capacity - 1;
+        this.keys = new long[capacity];
+        this.values = new double[capacity];
+        this.generations = new int[capacity];
+        this.referenced = new boolean[capacity];
+    }
+
+    public double getFunctionValue(double x) {
+        if (Double.isNaN(x)) {
+            return function.getFunctionValue(x);
+        }
+
+        long key = Double.doubleToLongBits(x);
+        int i = slot(key);
+        while (generations[i] == generation) {
+            if (keys[i] == key) {
+                referenced[i] = true;
+                hits++;
+                return values[i];
+            }
+            i = (i + 1) & mask;
+        }
+
+        misses++;
+        double y = function.getFunctionValue(x);
+        if (size == maxEntries) {
+            evict();
+        }
+        insert(key, y);
+        return y;
+    }
+
+    public long getHitCount() {
+        return hits;
+    }
+
+    public long getMissCount() {
+        return misses;
+    }
+
+    public void resetStatistics() {
+        hits = 0;
+        misses = 0;
+    }
+
+    // Сброс кэша: все записи старого поколения считаются пустыми
+    public void invalidate() {
+        size = 0;
+        generation++;
+        if (generation == 0) {
+            // после переполнения счётчика старые номера поколений могли бы совпасть с новыми
+            for (int i = 0; i < generations.length; i++) {
+                generations[i] = 0;
+            }
+            generation = 1;
+        }
+    }
+
+    //Хеш-таблица
+
+    private int slot(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        return (int) key & mask;
+    }
+
+    private void insert(long key, double value) {
+        int i = slot(key);
+        while (generations[i] == generation) {
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = value;
+        generations[i] = generation;
+        referenced[i] = false;
+        size++;
+    }
+
+    // CLOCK: стрелка идёт по таблице, снимая биты обращения, и вытесняет первую запись без него
+    private void evict() {
+        while (true) {
+            clockHand = (clockHand + 1) & mask;
+            if (generations[clockHand] != generation) {
+                continue;
+            }
+            if (referenced[clockHand]) {
+                referenced[clockHand] = false;
+            } else {
+                remove(clockHand);
+                return;
+            }
+        }
+    }
+
+    // Удаление с обратным сдвигом: следующие записи цепочки подтягиваются на освободившееся место,
+    // чтобы поиск по-прежнему останавливался только на действительно пустых ячейках
+    private void remove(int i) {
+        int j = i;
+        while (true) {
+            j = (j + 1) & mask;
+            if (generations[j] != generation) {
+                break;
+            }
+            int home = slot(keys[j]);
+            boolean stays = i <= j ? (home > i && home <= j) : (home > i || home <= j);
+            if (!stays) {
+                keys[i] = keys[j];
+                values[i] = values[j];
+                referenced[i] = referenced[j];
+                i = j;
+            }
+        }
+        generations[i] = 0;
+        size--;
+    }
+
+    //Методы интерфейса TabulatedFunction
+
+    public int getPointsCount() {
+        return function.getPointsCount();
+    }
+
+    public FunctionPoint getPoint(int index) throws FunctionPointIndexOutOfBoundsException {
+        return function.getPoint(index);
+    }
+
+    public void setPoint(int index, FunctionPoint point)
+            throws FunctionPointIndexOutOfBoundsException, InappropriateFunctionPointException {
+        function.setPoint(index, point);
+        invalidate();
+    }
+
+    public void getPoint(int index, FunctionPoint holder) throws FunctionPointIndexOutOfBoundsException {
+        function.getPoint(index, holder);
+    }
+
+    public int copyPoints(double[] xs, double[] ys) {
+        return function.copyPoints(xs, ys);
+    }
+
+    public void forEachPoint(PointConsumer action) {
+        function.forEachPoint(action);
+    }
+
+    public double getPointX(int index) throws FunctionPointIndexOutOfBoundsException {
+        return function.getPointX(index);
+    }
+
+    public void setPointX(int index, double x)
+            throws FunctionPointIndexOutOfBoundsException, InappropriateFunctionPointException {
+        function.setPointX(index, x);
+        invalidate();
+    }
+
+    public double getPointY(int index) throws FunctionPointIndexOutOfBoundsException {
+        return function.getPointY(index);
+    }
+
+    public void setPointY(int index, double y) throws FunctionPointIndexOutOfBoundsException {
+        function.setPointY(index, y);
+        invalidate();
+    }
+
+    public void deletePoint(int index) throws FunctionPointIndexOutOfBoundsException, IllegalStateException {
+        function.deletePoint(index);
+        invalidate();
+    }
+
+    public void addPoint(FunctionPoint point) throws InappropriateFunctionPointException {
+        function.addPoint(point);
+        invalidate();
+    }
+
+    public void addPoints(double[] xs, double[] ys) throws InappropriateFunctionPointException {
+        function.addPoints(xs, ys);
+        invalidate();
+    }
+
+    public double getLeftDomainBorder() {
+        return function.getLeftDomainBorder();
+    }
+
+    public double getRightDomainBorder() {
+        return function.getRightDomainBorder();
+    }
+}
@@ -0,0 +1,140 @@
+package functions;
+
+// Ленивое представление суммы, произведения или композиции двух табулированных функций.
+// getFunctionValue вычисляет значение по операндам в момент вызова (для произведения -
+// точное f(x) * g(x)), поэтому изменения операндов сразу видны в значениях.
+// Узлы (getPoint, getPointX, ...) строятся TabulatedFunctionOperations при первом обращении
+// к ним и запоминаются; refresh() пересчитывает их после изменения операндов.
+// Представление только для чтения, методы изменения выбрасывают UnsupportedOperationException
+public final class CombinedTabulatedFunction implements TabulatedFunction {
+
+    enum Kind {
+        SUM,
+        PRODUCT,
+        COMPOSITION // f(g(x))
+    }
+
+    private final TabulatedFunction f;
+    private final TabulatedFunction g;
+    private final Kind kind;
+    private ImmutableTabulatedFunction nodes; // null, пока узлы не понадобились
+
+    CombinedTabulatedFunction(TabulatedFunction f, TabulatedFunction g, Kind kind) {
+        this.f = f;
+        this.g = g;
+        this.kind = kind;
+    }
+
+    // Такое же представление над операндами, которые можно читать из нескольких потоков.
+    // Копия точек не подходит: между узлами значения представления не линейны.
+    // Узлы строятся лениво, но это неизменяемая функция с final-полями, поэтому при гонке
+    // её в худшем случае построят дважды
+    public TabulatedFunction readSafe() {
+        return new CombinedTabulatedFunction(f.readSafe(), g.readSafe(), kind);
+    }
+
+    // Сбросить запомненные узлы, они будут построены заново при следующем обращении
+    public void refresh() {
+        nodes = null;
+    }
+
+    // Узлы в виде новой изменяемой функции
+    public ArrayTabulatedFunction materialize() {
+        ImmutableTabulatedFunction nodes = nodes();
+        int count = nodes.getPointsCount();
+        double[] xs = new double[count];
+        double[] ys = new double[count];
+        nodes.copyPoints(xs, ys);
+        return new ArrayTabulatedFunction(xs, ys);
+    }
+
+    private ImmutableTabulatedFunction nodes() {
+        if (nodes == null) {
+            nodes = TabulatedFunctionOperations.combine(f, g, kind);
+        }
+        return nodes;
+    }
+
+    public double getFunctionValue(double x) {
+        switch (kind) {
+            case SUM:
+                return inDomain(x) ? f.getFunctionValue(x) + g.getFunctionValue(x) : Double.NaN;
+            case PRODUCT:
+                return inDomain(x) ? f.getFunctionValue(x) * g.getFunctionValue(x) : Double.NaN;
+            default:
+                // вне области g или f получается NaN
+                return f.getFunctionValue(g.getFunctionValue(x));
+        }
+    }
+
+    private boolean inDomain(double x) {
+        return x >= getLeftDomainBorder() && x <= getRightDomainBorder();
+    }
+
+    // Границы не требуют построения узлов
+    public double getLeftDomainBorder() {
+        if (kind == Kind.COMPOSITION) {
+            return g.getLeftDomainBorder();
+        }
+        return Math.max(f.getLeftDomainBorder(), g.getLeftDomainBorder());
+    }
+
+    public double getRightDomainBorder() {
+        if (kind == Kind.COMPOSITION) {
+            return g.getRightDomainBorder();
+        }
+        return Math.min(f.getRightDomainBorder(), g.getRightDomainBorder());
+    }
+
+    public int getPointsCount() {
+        return nodes().getPointsCount();
+    }
+
+    public FunctionPoint getPoint(int index) throws FunctionPointIndexOutOfBoundsException {
+        return nodes().getPoint(index);
+    }
+
+    public void getPoint(int index, FunctionPoint holder) throws FunctionPointIndexOutOfBoundsException {
+        nodes().getPoint(index, holder);
+    }
+
+    public double getPointX(int index) throws FunctionPointIndexOutOfBoundsException {
+        return nodes().getPointX(index);
+    }
+
+    public double getPointY(int index) throws FunctionPointIndexOutOfBoundsException {
+        return nodes().getPointY(index);
+    }
+
+    public int copyPoints(double[] xs, double[] ys) {
+        return nodes().copyPoints(xs, ys);
+    }
+
+    public void forEachPoint(PointConsumer action) {
+        nodes().forEachPoint(action);
+    }
+
+    public void setPoint(int index, FunctionPoint point) {
+        throw new UnsupportedOperationException("Функция неизменяема");
+    }
+
+    public void setPointX(int index, double x) {
+        throw new UnsupportedOperationException("Функция неизменяема");
+    }
+
+    public void setPointY(int index, double y) {
+        throw new UnsupportedOperationException("Функция неизменяема");
+    }
+
+    public void deletePoint(int index) {
+        throw new UnsupportedOperationException("Функция неизменяема");
+    }
+
+    public void addPoint(FunctionPoint point) {
+        throw new UnsupportedOperationException("Функция неизменяема");
+    }
+
+    public void addPoints(double[] xs, double[] ys) {
+        throw new UnsupportedOperationException("Функция неизменяема");
+    }
+}
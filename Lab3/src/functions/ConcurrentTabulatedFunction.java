@@ -0,0 +1,121 @@
+package functions;
+
+// Потокобезопасная табулированная функция (копирование при записи).
+// Точки хранятся в неизменяемом снимке, ссылка на который лежит в volatile-поле:
+// чтение берёт текущий снимок без блокировок и никогда не видит частично выполненного изменения,
+// запись (под synchronized) копирует снимок, меняет копию и публикует её одной записью ссылки.
+// Подходит для таблиц, которые читаются намного чаще, чем меняются: каждое изменение стоит O(n)
+public class ConcurrentTabulatedFunction implements TabulatedFunction {
+
+    // Снимок после публикации больше не меняется
+    private volatile DoubleArrayTabulatedFunction snapshot;
+
+    public ConcurrentTabulatedFunction(double leftX, double rightX, int pointsCount)
+            throws IllegalArgumentException {
+        this.snapshot = new DoubleArrayTabulatedFunction(leftX, rightX, pointsCount);
+    }
+
+    public ConcurrentTabulatedFunction(double leftX, double rightX, double[] values)
+            throws IllegalArgumentException {
+        this.snapshot = new DoubleArrayTabulatedFunction(leftX, rightX, values);
+    }
+
+    // Потокобезопасная копия любой табулированной функции
+    public ConcurrentTabulatedFunction(TabulatedFunction function) {
+        this.snapshot = new DoubleArrayTabulatedFunction(function);
+    }
+
+    // Методы чтения: одно чтение volatile-поля, дальше работа с неизменяемым снимком
+
+    public int getPointsCount() {
+        return snapshot.getPointsCount();
+    }
+
+    public FunctionPoint getPoint(int index) throws FunctionPointIndexOutOfBoundsException {
+        return snapshot.getPoint(index);
+    }
+
+    public void getPoint(int index, FunctionPoint holder) throws FunctionPointIndexOutOfBoundsException {
+        snapshot.getPoint(index, holder);
+    }
+
+    public double getPointX(int index) throws FunctionPointIndexOutOfBoundsException {
+        return snapshot.getPointX(index);
+    }
+
+    public double getPointY(int index) throws FunctionPointIndexOutOfBoundsException {
+        return snapshot.getPointY(index);
+    }
+
+    // Выгрузка и обход видят один снимок целиком, даже если параллельно идёт запись.
+    // Количество точек к этому моменту может отличаться от ранее прочитанного getPointsCount()
+    public int copyPoints(double[] xs, double[] ys) {
+        return snapshot.copyPoints(xs, ys);
+    }
+
+    public void forEachPoint(PointConsumer action) {
+        snapshot.forEachPoint(action);
+    }
+
+    public double getLeftDomainBorder() {
+        return snapshot.getLeftDomainBorder();
+    }
+
+    public double getRightDomainBorder() {
+        return snapshot.getRightDomainBorder();
+    }
+
+    // Читатели и так работают с неизменяемым снимком
+    public TabulatedFunction readSafe() {
+        return this;
+    }
+
+    public double getFunctionValue(double x) {
+        return snapshot.getFunctionValue(x);
+    }
+
+    public void getFunctionValues(double[] xs, double[] out, int offset, int length) {
+        snapshot.getFunctionValues(xs, out, offset, length);
+    }
+
+    // Методы записи: изменяется копия, при исключении текущий снимок остаётся прежним
+
+    public synchronized void setPoint(int index, FunctionPoint point)
+            throws FunctionPointIndexOutOfBoundsException, InappropriateFunctionPointException {
+        DoubleArrayTabulatedFunction copy = new DoubleArrayTabulatedFunction(snapshot);
+        copy.setPoint(index, point);
+        snapshot = copy;
+    }
+
+    public synchronized void setPointX(int index, double x)
+            throws FunctionPointIndexOutOfBoundsException, InappropriateFunctionPointException {
+        DoubleArrayTabulatedFunction copy = new DoubleArrayTabulatedFunction(snapshot);
+        copy.setPointX(index, x);
+        snapshot = copy;
+    }
+
+    public synchronized void setPointY(int index, double y) throws FunctionPointIndexOutOfBoundsException {
+        DoubleArrayTabulatedFunction copy = new DoubleArrayTabulatedFunction(snapshot);
+        copy.setPointY(index, y);
+        snapshot = copy;
+    }
+
+    public synchronized void deletePoint(int index)
+            throws FunctionPointIndexOutOfBoundsException, IllegalStateException {
+        DoubleArrayTabulatedFunction copy = new DoubleArrayTabulatedFunction(snapshot);
+        copy.deletePoint(index);
+        snapshot = copy;
+    }
+
+    public synchronized void addPoint(FunctionPoint point) throws InappropriateFunctionPointException {
+        DoubleArrayTabulatedFunction copy = new DoubleArrayTabulatedFunction(snapshot);
+        copy.addPoint(point);
+        snapshot = copy;
+    }
+
+    public synchronized void addPoints(double[] xs, double[] ys) throws InappropriateFunctionPointException {
+        DoubleArrayTabulatedFunction copy = new DoubleArrayTabulatedFunction(snapshot);
+        copy.addPoints(xs, ys);
+        snapshot = copy;
+    }
+}
@@ -0,0 +1,316 @@
+package functions;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Загрузка табулированных функций из текстовых файлов с парами "x,y" (по одной на строку).
+// Разделитель - запятая, точка с запятой или табуляция; пустые строки и строки, начинающиеся с '#',
+// пропускаются; первая строка может быть заголовком. Пробелы в начале и в конце поля отбрасываются,
+// пробел внутри числа - ошибка. Абсциссы должны строго возрастать
+// (с той же точностью, что и в ArrayTabulatedFunction.Comparison).
+// Файл читается блоками и разбирается за один проход без создания строк для каждого числа
+public class CsvTabulatedFunctionImporter {
+
+    private static final int CHUNK_SIZE = 1 << 16;
+
+    // Степени 10, точно представимые в double
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    // Прочитанные точки (массивы точного размера)
+    private static class Points {
+        double[] xs;
+        double[] ys;
+    }
+
+    private CsvTabulatedFunctionImporter() {
+    }
+
+    public static ArrayTabulatedFunction readArrayTabulatedFunction(Path path) throws IOException {
+        Points points = read(path);
+        return new ArrayTabulatedFunction(points.xs, points.ys);
+    }
+
+    public static LinkedListTabulatedFunction readLinkedListTabulatedFunction(Path path) throws IOException {
+        Points points = read(path);
+        return new LinkedListTabulatedFunction(points.xs, points.ys);
+    }
+
+    // Файлы каталога (без подкаталогов), порядок - как их возвращает файловая система
+    public static Path[] listFiles(Path directory) throws IOException {
+        Path[] files = new Path[16];
+        int count = 0;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (Path file : stream) {
+                if (!Files.isRegularFile(file)) {
+                    continue;
+                }
+                if (count == files.length) {
+                    Path[] newFiles = new Path[files.length * 2];
+                    System.arraycopy(files, 0, newFiles, 0, count);
+                    files = newFiles;
+                }
+                files[count++] = file;
+            }
+        }
+        Path[] result = new Path[count];
+        System.arraycopy(files, 0, result, 0, count);
+        return result;
+    }
+
+    // Параллельная загрузка файлов в пуле из не более чем threads потоков.
+    // i-я функция результата прочитана из files[i]; при ошибке выбрасывается ошибка первого по порядку
+    // файла, который не удалось прочитать
+    public static ArrayTabulatedFunction[] readAll(Path[] files, int threads) throws IOException {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Количество потоков меньше 1");
+        }
+        List<Callable<ArrayTabulatedFunction>> tasks = new ArrayList<>(files.length);
+        for (final Path file : files) {
+            tasks.add(() -> readArrayTabulatedFunction(file));
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(threads, Math.max(files.length, 1)));
+        try {
+            List<Future<ArrayTabulatedFunction>> futures = pool.invokeAll(tasks);
+            ArrayTabulatedFunction[] result = new ArrayTabulatedFunction[files.length];
+            for (int i = 0; i < files.length; i++) {
+                try {
+                    result[i] = futures.get(i).get();
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    if (cause instanceof IOException) {
+                        throw (IOException) cause;
+                    }
+                    if (cause instanceof Error) {
+                        throw (Error) cause;
+                    }
+                    throw new IOException(files[i] + ": " + cause.getMessage(), cause);
+                }
+            }
+            return result;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Загрузка прервана", e);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static Points read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return read(channel, path.toString());
+        }
+    }
+
+    // Разбор текста за один проход по байтам. Поле накапливается в token, а по разделителю
+    // или концу строки переводится в число
+    private static Points read(ReadableByteChannel channel, String name) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(CHUNK_SIZE);
+        byte[] token = new byte[64];
+        int tokenLength = 0;
+        boolean spaceAfterToken = false; // после непустого поля встретился пробел
+        boolean innerSpace = false;      // после пробела поле продолжилось: "1 000"
+
+        double[] xs = new double[1024];
+        double[] ys = new double[1024];
+        int count = 0;
+
+        double[] fields = new double[2];
+        int fieldCount = 0;
+        long line = 1;
+        boolean skipLine = false; // комментарий или заголовок
+        boolean end = false;
+
+        while (!end) {
+            buffer.clear();
+            end = channel.read(buffer) < 0;
+            buffer.flip();
+            int limit = end ? buffer.limit() + 1 : buffer.limit(); // в конце - условный перевод строки
+
+            for (int p = 0; p < limit; p++) {
+                byte b = p < buffer.limit() ? buffer.get(p) : (byte) '\n';
+                if (b == '\r') {
+                    continue;
+                }
+                if (b == ' ') {
+                    spaceAfterToken = tokenLength > 0;
+                    continue;
+                }
+                boolean lineEnd = b == '\n';
+                boolean separator = b == ',' || b == ';' || b == '\t';
+
+                if (!lineEnd && !separator) {
+                    if (skipLine) {
+                        continue;
+                    }
+                    if (b == '#' && tokenLength == 0 && fieldCount == 0) {
+                        skipLine = true;
+                        continue;
+                    }
+                    if (spaceAfterToken) {
+                        innerSpace = true;
+                    }
+                    if (tokenLength == token.length) {
+                        byte[] newToken = new byte[token.length * 2];
+                        System.arraycopy(token, 0, newToken, 0, tokenLength);
+                        token = newToken;
+                    }
+                    token[tokenLength++] = b;
+                    continue;
+                }
+
+                // конец поля
+                if (!skipLine && (tokenLength > 0 || separator)) {
+                    if (tokenLength == 0) {
+                        throw new IOException(name + ": строка " + line + ": пустое поле");
+                    }
+                    if (fieldCount == 2) {
+                        throw new IOException(name + ": строка " + line + ": ожидается два числа");
+                    }
+                    try {
+                        if (innerSpace) {
+                            throw new NumberFormatException("Пробел внутри числа");
+                        }
+                        fields[fieldCount++] = parseDouble(token, tokenLength);
+                    } catch (NumberFormatException e) {
+                        if (line != 1) {
+                            throw new IOException(name + ": строка " + line + ": неверное число", e);
+                        }
+                        skipLine = true; // первая строка - заголовок
+                    }
+                }
+                tokenLength = 0;
+                spaceAfterToken = false;
+                innerSpace = false;
+                if (!lineEnd) {
+                    continue;
+                }
+
+                // конец строки
+                if (!skipLine && fieldCount == 1) {
+                    throw new IOException(name + ": строка " + line + ": ожидается два числа");
+                }
+                if (!skipLine && fieldCount == 2) {
+                    double x = fields[0];
+                    if (Double.isNaN(x) || (count > 0
+                            && (x < xs[count - 1] || ArrayTabulatedFunction.Comparison(x, xs[count - 1])))) {
+                        throw new IOException(name + ": строка " + line + ": абсциссы должны строго возрастать");
+                    }
+                    if (count == xs.length) {
+                        double[] newXs = new double[xs.length * 2];
+                        double[] newYs = new double[ys.length * 2];
+                        System.arraycopy(xs, 0, newXs, 0, count);
+                        System.arraycopy(ys, 0, newYs, 0, count);
+                        xs = newXs;
+                        ys = newYs;
+                    }
+                    xs[count] = x;
+                    ys[count] = fields[1];
+                    count++;
+                }
+                fieldCount = 0;
+                skipLine = false;
+                line++;
+            }
+        }
+
+        if (count < 2) {
+            throw new IOException(name + ": количество точек меньше 2");
+        }
+        Points points = new Points();
+        points.xs = new double[count];
+        points.ys = new double[count];
+        System.arraycopy(xs, 0, points.xs, 0, count);
+        System.arraycopy(ys, 0, points.ys, 0, count);
+        return points;
+    }
+
+    // Разбор числа без создания строки: до 15 значащих цифр и порядок до 22 переводятся точно
+    // одним умножением или делением на степень 10, остальные случаи - через Double.parseDouble
+    static double parseDouble(byte[] text, int length) throws NumberFormatException {
+        int i = 0;
+        boolean negative = false;
+        if (text[0] == '-' || text[0] == '+') {
+            negative = text[0] == '-';
+            i++;
+        }
+
+        long mantissa = 0;
+        int digits = 0; // значащие цифры в mantissa
+        int exponent = 0;
+        boolean anyDigit = false;
+        boolean fallback = false;
+
+        for (; i < length && text[i] >= '0' && text[i] <= '9'; i++) {
+            anyDigit = true;
+            if (digits < 18) {
+                mantissa = mantissa * 10 + (text[i] - '0');
+                if (mantissa != 0) {
+                    digits++;
+                }
+            } else {
+                fallback = true;
+            }
+        }
+        if (i < length && text[i] == '.') {
+            for (i++; i < length && text[i] >= '0' && text[i] <= '9'; i++) {
+                anyDigit = true;
+                if (digits < 18) {
+                    mantissa = mantissa * 10 + (text[i] - '0');
+                    if (mantissa != 0) {
+                        digits++;
+                    }
+                    exponent--;
+                } else {
+                    fallback = true;
+                }
+            }
+        }
+        if (anyDigit && i < length && (text[i] == 'e' || text[i] == 'E')) {
+            i++;
+            boolean negativeExponent = false;
+            if (i < length && (text[i] == '-' || text[i] == '+')) {
+                negativeExponent = text[i] == '-';
+                i++;
+            }
+            int value = 0;
+            boolean anyExponentDigit = false;
+            for (; i < length && text[i] >= '0' && text[i] <= '9'; i++) {
+                anyExponentDigit = true;
+                if (value < 10000) {
+                    value = value * 10 + (text[i] - '0');
+                }
+            }
+            if (!anyExponentDigit) {
+                anyDigit = false;
+            }
+            exponent += negativeExponent ? -value : value;
+        }
+
+        if (!anyDigit || i != length || fallback || digits > 15 || exponent < -22 || exponent > 22) {
+            return Double.parseDouble(new String(text, 0, length, StandardCharsets.ISO_8859_1));
+        }
+
+        double result = exponent >= 0
+                ? mantissa * POWERS_OF_TEN[exponent]
+                : mantissa / POWERS_OF_TEN[-exponent];
+        return negative ? -result : result;
+    }
+}
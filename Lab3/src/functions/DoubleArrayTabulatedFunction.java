@@ -0,0 +1,234 @@
+package functions;
+
+// Табулированная функция, хранящая абсциссы и ординаты в двух параллельных массивах double
+// (без отдельного объекта FunctionPoint на каждую точку)
+public class DoubleArrayTabulatedFunction implements TabulatedFunction {
+
+    private double[] xs; // абсциссы точек
+    private double[] ys; // ординаты точек
+    private int pointsCount;
+
+    public DoubleArrayTabulatedFunction(double leftX, double rightX, int pointsCount)
+            throws IllegalArgumentException {
+        if (leftX >= rightX) {
+            throw new IllegalArgumentException("Левая граница области определения больше или равна правой");
+        }
+        if (pointsCount < 2) {
+            throw new IllegalArgumentException("Количество точек меньше 2");
+        }
+
+        this.pointsCount = pointsCount;
+        this.xs = new double[pointsCount + 10];
+        this.ys = new double[pointsCount + 10];
+
+        double step = (rightX - leftX) / (pointsCount - 1);
+
+        for (int i = 0; i < pointsCount; i++) {
+            xs[i] = leftX + i * step;
+        }
+    }
+
+    public DoubleArrayTabulatedFunction(double leftX, double rightX, double[] values)
+            throws IllegalArgumentException {
+        this(leftX, rightX, values.length);
+        System.arraycopy(values, 0, ys, 0, values.length);
+    }
+
+    // Копирование точек любой табулированной функции (в том числе ArrayTabulatedFunction) без потерь
+    public DoubleArrayTabulatedFunction(TabulatedFunction function) {
+        this.pointsCount = function.getPointsCount();
+        this.xs = new double[pointsCount + 10];
+        this.ys = new double[pointsCount + 10];
+
+        for (int i = 0; i < pointsCount; i++) {
+            xs[i] = function.getPointX(i);
+            ys[i] = function.getPointY(i);
+        }
+    }
+
+    // Обратное преобразование в ArrayTabulatedFunction
+    public ArrayTabulatedFunction toArrayTabulatedFunction() {
+        double[] copyX = new double[pointsCount];
+        double[] copyY = new double[pointsCount];
+        System.arraycopy(xs, 0, copyX, 0, pointsCount);
+        System.arraycopy(ys, 0, copyY, 0, pointsCount);
+        return new ArrayTabulatedFunction(copyX, copyY);
+    }
+
+    // Неизменяемая копия без запаса места в массивах
+    public ImmutableTabulatedFunction freeze() {
+        double[] copyX = new double[pointsCount];
+        double[] copyY = new double[pointsCount];
+        System.arraycopy(xs, 0, copyX, 0, pointsCount);
+        System.arraycopy(ys, 0, copyY, 0, pointsCount);
+        return new ImmutableTabulatedFunction(copyX, copyY);
+    }
+
+    public double getLeftDomainBorder() {
+        return xs[0];
+    }
+
+    public double getRightDomainBorder() {
+        return xs[pointsCount - 1];
+    }
+
+    // Чтение только ищет по массивам, копия не нужна
+    public TabulatedFunction readSafe() {
+        return this;
+    }
+
+    public double getFunctionValue(double x) {
+        return TabulatedFunctionArrays.getFunctionValue(xs, ys, pointsCount, x);
+    }
+
+    // Пакетное вычисление: для возрастающих xs интервал ищется сдвигом от предыдущего
+    public void getFunctionValues(double[] xs, double[] out, int offset, int length) {
+        TabulatedFunctionArrays.getFunctionValues(this.xs, ys, pointsCount, xs, out, offset, length);
+    }
+
+    public int getPointsCount() {
+        return pointsCount;
+    }
+
+    public FunctionPoint getPoint(int index) throws FunctionPointIndexOutOfBoundsException {
+        checkIndex(index);
+        return new FunctionPoint(xs[index], ys[index]);
+    }
+
+    public void getPoint(int index, FunctionPoint holder) throws FunctionPointIndexOutOfBoundsException {
+        checkIndex(index);
+        holder.setter_x(xs[index]);
+        holder.setter_y(ys[index]);
+    }
+
+    public int copyPoints(double[] xs, double[] ys) {
+        if (pointsCount > xs.length || pointsCount > ys.length) {
+            throw new IndexOutOfBoundsException("Диапазон выходит за границы массива");
+        }
+        System.arraycopy(this.xs, 0, xs, 0, pointsCount);
+        System.arraycopy(this.ys, 0, ys, 0, pointsCount);
+        return pointsCount;
+    }
+
+    public void forEachPoint(PointConsumer action) {
+        for (int i = 0; i < pointsCount; i++) {
+            action.accept(xs[i], ys[i]);
+        }
+    }
+
+    public void setPoint(int index, FunctionPoint point)
+            throws FunctionPointIndexOutOfBoundsException, InappropriateFunctionPointException {
+        checkIndex(index);
+        checkNeighbours(index, point.getter_x());
+        xs[index] = point.getter_x();
+        ys[index] = point.getter_y();
+    }
+
+    public double getPointX(int index) throws FunctionPointIndexOutOfBoundsException {
+        checkIndex(index);
+        return xs[index];
+    }
+
+    public void setPointX(int index, double x)
+            throws FunctionPointIndexOutOfBoundsException, InappropriateFunctionPointException {
+        checkIndex(index);
+        checkNeighbours(index, x);
+        xs[index] = x;
+    }
+
+    public double getPointY(int index) throws FunctionPointIndexOutOfBoundsException {
+        checkIndex(index);
+        return ys[index];
+    }
+
+    public void setPointY(int index, double y) throws FunctionPointIndexOutOfBoundsException {
+        checkIndex(index);
+        ys[index] = y;
+    }
+
+    public void deletePoint(int index) throws FunctionPointIndexOutOfBoundsException {
+        checkIndex(index);
+        if (pointsCount < 3) {
+            throw new IllegalStateException("Количество точек меньше 3");
+        }
+        System.arraycopy(xs, index + 1, xs, index, pointsCount - index - 1);
+        System.arraycopy(ys, index + 1, ys, index, pointsCount - index - 1);
+        pointsCount--;
+    }
+
+    public void addPoint(FunctionPoint point) throws InappropriateFunctionPointException {
+        double x = point.getter_x();
+
+        // позиция для вставки (бинарный поиск первой точки с абсциссой >= x)
+        int low = 0;
+        int high = pointsCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (xs[mid] < x) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+
+        // если точка с такой координатой x уже есть
+        if ((low < pointsCount && ArrayTabulatedFunction.Comparison(xs[low], x))
+                || (low > 0 && ArrayTabulatedFunction.Comparison(xs[low - 1], x))) {
+            throw new InappropriateFunctionPointException("Точка с такой координатой x уже есть");
+        }
+
+        // если места не хватает, увеличиваем массивы в 2 раза
+        if (pointsCount == xs.length) {
+            double[] newXs = new double[xs.length * 2 + 1];
+            double[] newYs = new double[ys.length * 2 + 1];
+            System.arraycopy(xs, 0, newXs, 0, pointsCount);
+            System.arraycopy(ys, 0, newYs, 0, pointsCount);
+            xs = newXs;
+            ys = newYs;
+            if (TabulatedFunctionMetrics.ENABLED) {
+                TabulatedFunctionMetrics.ARRAY_RESIZES.increment();
+            }
+        }
+
+        // двигаем точки вправо чтобы освободить место
+        System.arraycopy(xs, low, xs, low + 1, pointsCount - low);
+        System.arraycopy(ys, low, ys, low + 1, pointsCount - low);
+
+        xs[low] = x;
+        ys[low] = point.getter_y();
+        pointsCount++;
+    }
+
+    // Добавление пачки точек одним слиянием за O(n + k log k).
+    // Если хотя бы одна точка не подходит, функция не меняется
+    public void addPoints(double[] xs, double[] ys) throws InappropriateFunctionPointException {
+        double[] addXs = xs.clone();
+        double[] addYs = ys.clone();
+        TabulatedFunctionArrays.sortBatch(addXs, addYs);
+
+        int capacity = pointsCount + addXs.length + 10;
+        double[] newXs = new double[capacity];
+        double[] newYs = new double[capacity];
+        TabulatedFunctionArrays.merge(this.xs, this.ys, pointsCount, addXs, addYs, newXs, newYs);
+
+        this.xs = newXs;
+        this.ys = newYs;
+        pointsCount += addXs.length;
+    }
+
+    private void checkIndex(int index) throws FunctionPointIndexOutOfBoundsException {
+        if (index < 0 || index >= pointsCount) {
+            throw new FunctionPointIndexOutOfBoundsException(index);
+        }
+    }
+
+    // x должен лежать строго между абсциссами соседних точек
+    private void checkNeighbours(int index, double x) throws InappropriateFunctionPointException {
+        if (index > 0 && (x < xs[index - 1] || ArrayTabulatedFunction.Comparison(x, xs[index - 1]))) {
+            throw new InappropriateFunctionPointException("X лежит вне определенного интервала");
+        }
+        if (index < pointsCount - 1 && (x > xs[index + 1] || ArrayTabulatedFunction.Comparison(x, xs[index + 1]))) {
+            throw new InappropriateFunctionPointException("X лежит вне определенного интервала");
+        }
+    }
+}
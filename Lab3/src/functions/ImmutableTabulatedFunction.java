@@ -0,0 +1,134 @@
+package functions;
+
+// Неизменяемая табулированная функция: точки лежат в двух массивах double точного размера.
+// Все поля final, поэтому объект можно без синхронизации передавать между потоками.
+// Методы изменения точек выбрасывают UnsupportedOperationException
+public final class ImmutableTabulatedFunction implements TabulatedFunction {
+
+    private final double[] xs;
+    private final double[] ys;
+    private final double inverseStep; // 1 / шаг равномерной сетки или NaN, если сетка неравномерная
+
+    // Массивы не копируются: вызывающий код (freeze) передаёт свежие копии
+    ImmutableTabulatedFunction(double[] xs, double[] ys) {
+        this.xs = xs;
+        this.ys = ys;
+        this.inverseStep = 1 / TabulatedFunctionArrays.uniformStep(xs, xs.length);
+    }
+
+    // Неизменяемая копия любой табулированной функции
+    public ImmutableTabulatedFunction(TabulatedFunction function) {
+        int count = function.getPointsCount();
+        this.xs = new double[count];
+        this.ys = new double[count];
+        for (int i = 0; i < count; i++) {
+            xs[i] = function.getPointX(i);
+            ys[i] = function.getPointY(i);
+        }
+        this.inverseStep = 1 / TabulatedFunctionArrays.uniformStep(xs, count);
+    }
+
+    public int getPointsCount() {
+        return xs.length;
+    }
+
+    public FunctionPoint getPoint(int index) throws FunctionPointIndexOutOfBoundsException {
+        checkIndex(index);
+        return new FunctionPoint(xs[index], ys[index]);
+    }
+
+    public void getPoint(int index, FunctionPoint holder) throws FunctionPointIndexOutOfBoundsException {
+        checkIndex(index);
+        holder.setter_x(xs[index]);
+        holder.setter_y(ys[index]);
+    }
+
+    public int copyPoints(double[] xs, double[] ys) {
+        if (this.xs.length > xs.length || this.xs.length > ys.length) {
+            throw new IndexOutOfBoundsException("Диапазон выходит за границы массива");
+        }
+        System.arraycopy(this.xs, 0, xs, 0, this.xs.length);
+        System.arraycopy(this.ys, 0, ys, 0, this.ys.length);
+        return this.xs.length;
+    }
+
+    public void forEachPoint(PointConsumer action) {
+        for (int i = 0; i < xs.length; i++) {
+            action.accept(xs[i], ys[i]);
+        }
+    }
+
+    public double getPointX(int index) throws FunctionPointIndexOutOfBoundsException {
+        checkIndex(index);
+        return xs[index];
+    }
+
+    public double getPointY(int index) throws FunctionPointIndexOutOfBoundsException {
+        checkIndex(index);
+        return ys[index];
+    }
+
+    public double getLeftDomainBorder() {
+        return xs[0];
+    }
+
+    public double getRightDomainBorder() {
+        return xs[xs.length - 1];
+    }
+
+    // Все поля final, копия не нужна
+    public TabulatedFunction readSafe() {
+        return this;
+    }
+
+    public double getFunctionValue(double x) {
+        if (!Double.isNaN(inverseStep)) {
+            if (!(x >= xs[0] && x <= xs[xs.length - 1])) {
+                return Double.NaN;
+            }
+            int i = TabulatedFunctionArrays.findUniformIntervalIndex(xs, xs.length, inverseStep, x);
+            return TabulatedFunctionArrays.valueInInterval(xs, ys, xs.length, i, x);
+        }
+        return TabulatedFunctionArrays.getFunctionValue(xs, ys, xs.length, x);
+    }
+
+    // На равномерной сетке номер интервала вычисляется для каждого аргумента независимо,
+    // иначе используется общий проход со сдвигом от предыдущего интервала
+    public void getFunctionValues(double[] xs, double[] out, int offset, int length) {
+        if (!Double.isNaN(inverseStep)) {
+            TabulatedFunctionArrays.getFunctionValuesUniform(this.xs, ys, this.xs.length, inverseStep, xs, out, offset, length);
+        } else {
+            TabulatedFunctionArrays.getFunctionValues(this.xs, ys, this.xs.length, xs, out, offset, length);
+        }
+    }
+
+    public void setPoint(int index, FunctionPoint point) {
+        throw new UnsupportedOperationException("Функция неизменяема");
+    }
+
+    public void setPointX(int index, double x) {
+        throw new UnsupportedOperationException("Функция неизменяема");
+    }
+
+    public void setPointY(int index, double y) {
+        throw new UnsupportedOperationException("Функция неизменяема");
+    }
+
+    public void deletePoint(int index) {
+        throw new UnsupportedOperationException("Функция неизменяема");
+    }
+
+    public void addPoint(FunctionPoint point) {
+        throw new UnsupportedOperationException("Функция неизменяема");
+    }
+
+    public void addPoints(double[] xs, double[] ys) {
+        throw new UnsupportedOperationException("Функция неизменяема");
+    }
+
+    private void checkIndex(int index) throws FunctionPointIndexOutOfBoundsException {
+        if (index < 0 || index >= xs.length) {
+            throw new FunctionPointIndexOutOfBoundsException(index);
+        }
+    }
+}
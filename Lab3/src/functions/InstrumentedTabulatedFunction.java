@@ -0,0 +1,185 @@
+package functions;
+
+import functions.TabulatedFunctionMetrics.Operation;
+
+// Табулированная функция, измеряющая длительность каждой операции обёрнутой функции
+// и записывающая её в гистограммы TabulatedFunctionMetrics.
+// При выключенном сборе метрик методы сразу делегируют вызов без обращения к таймеру
+public class InstrumentedTabulatedFunction implements TabulatedFunction {
+
+    private final TabulatedFunction function;
+
+    public InstrumentedTabulatedFunction(TabulatedFunction function) {
+        this.function = function;
+    }
+
+    public TabulatedFunction getFunction() {
+        return function;
+    }
+
+    public int getPointsCount() {
+        return function.getPointsCount();
+    }
+
+    public FunctionPoint getPoint(int index) throws FunctionPointIndexOutOfBoundsException {
+        if (!TabulatedFunctionMetrics.ENABLED) {
+            return function.getPoint(index);
+        }
+        long start = System.nanoTime();
+        try {
+            return function.getPoint(index);
+        } finally {
+            TabulatedFunctionMetrics.recordLatency(Operation.GET_POINT, start);
+        }
+    }
+
+    public void setPoint(int index, FunctionPoint point)
+            throws FunctionPointIndexOutOfBoundsException, InappropriateFunctionPointException {
+        if (!TabulatedFunctionMetrics.ENABLED) {
+            function.setPoint(index, point);
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            function.setPoint(index, point);
+        } finally {
+            TabulatedFunctionMetrics.recordLatency(Operation.SET_POINT, start);
+        }
+    }
+
+    public void getPoint(int index, FunctionPoint holder) throws FunctionPointIndexOutOfBoundsException {
+        function.getPoint(index, holder);
+    }
+
+    public int copyPoints(double[] xs, double[] ys) {
+        return function.copyPoints(xs, ys);
+    }
+
+    public void forEachPoint(PointConsumer action) {
+        function.forEachPoint(action);
+    }
+
+    public double getPointX(int index) throws FunctionPointIndexOutOfBoundsException {
+        if (!TabulatedFunctionMetrics.ENABLED) {
+            return function.getPointX(index);
+        }
+        long start = System.nanoTime();
+        try {
+            return function.getPointX(index);
+        } finally {
+            TabulatedFunctionMetrics.recordLatency(Operation.GET_POINT_X, start);
+        }
+    }
+
+    public void setPointX(int index, double x)
+            throws FunctionPointIndexOutOfBoundsException, InappropriateFunctionPointException {
+        if (!TabulatedFunctionMetrics.ENABLED) {
+            function.setPointX(index, x);
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            function.setPointX(index, x);
+        } finally {
+            TabulatedFunctionMetrics.recordLatency(Operation.SET_POINT_X, start);
+        }
+    }
+
+    public double getPointY(int index) throws FunctionPointIndexOutOfBoundsException {
+        if (!TabulatedFunctionMetrics.ENABLED) {
+            return function.getPointY(index);
+        }
+        long start = System.nanoTime();
+        try {
+            return function.getPointY(index);
+        } finally {
+            TabulatedFunctionMetrics.recordLatency(Operation.GET_POINT_Y, start);
+        }
+    }
+
+    public void setPointY(int index, double y) throws FunctionPointIndexOutOfBoundsException {
+        if (!TabulatedFunctionMetrics.ENABLED) {
+            function.setPointY(index, y);
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            function.setPointY(index, y);
+        } finally {
+            TabulatedFunctionMetrics.recordLatency(Operation.SET_POINT_Y, start);
+        }
+    }
+
+    public void deletePoint(int index) throws FunctionPointIndexOutOfBoundsException, IllegalStateException {
+        if (!TabulatedFunctionMetrics.ENABLED) {
+            function.deletePoint(index);
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            function.deletePoint(index);
+        } finally {
+            TabulatedFunctionMetrics.recordLatency(Operation.DELETE_POINT, start);
+        }
+    }
+
+    public void addPoint(FunctionPoint point) throws InappropriateFunctionPointException {
+        if (!TabulatedFunctionMetrics.ENABLED) {
+            function.addPoint(point);
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            function.addPoint(point);
+        } finally {
+            TabulatedFunctionMetrics.recordLatency(Operation.ADD_POINT, start);
+        }
+    }
+
+    public void addPoints(double[] xs, double[] ys) throws InappropriateFunctionPointException {
+        if (!TabulatedFunctionMetrics.ENABLED) {
+            function.addPoints(xs, ys);
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            function.addPoints(xs, ys);
+        } finally {
+            TabulatedFunctionMetrics.recordLatency(Operation.ADD_POINTS, start);
+        }
+    }
+
+    public double getLeftDomainBorder() {
+        return function.getLeftDomainBorder();
+    }
+
+    public double getRightDomainBorder() {
+        return function.getRightDomainBorder();
+    }
+
+    public double getFunctionValue(double x) {
+        if (!TabulatedFunctionMetrics.ENABLED) {
+            return function.getFunctionValue(x);
+        }
+        long start = System.nanoTime();
+        try {
+            return function.getFunctionValue(x);
+        } finally {
+            TabulatedFunctionMetrics.recordLatency(Operation.GET_FUNCTION_VALUE, start);
+        }
+    }
+
+    // Для пакетного вычисления измеряется весь вызов целиком
+    public void getFunctionValues(double[] xs, double[] out, int offset, int length) {
+        if (!TabulatedFunctionMetrics.ENABLED) {
+            function.getFunctionValues(xs, out, offset, length);
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            function.getFunctionValues(xs, out, offset, length);
+        } finally {
+            TabulatedFunctionMetrics.recordLatency(Operation.GET_FUNCTION_VALUES, start);
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package functions;
+
+// Табулированная функция с индексом для быстрого вычисления интегралов.
+// Площади трапеций на интервалах хранятся в дереве Фенвика: после построения за O(n)
+// интеграл по любому отрезку вычисляется за O(log n). setPointY меняет площади двух соседних
+// интервалов и обновляет индекс за O(log n); изменения абсцисс и количества точек сбрасывают индекс,
+// он строится заново при следующем интегрировании.
+// Изменять точки нужно через этот объект, иначе индекс устареет
+public class IntegratingTabulatedFunction implements TabulatedFunction {
+
+    private final TabulatedFunction function;
+
+    private double[] xs = new double[0];
+    private double[] ys = new double[0];
+    private double[] tree = new double[0]; // дерево Фенвика по площадям интервалов, нумерация с 1
+    private int count;
+    private boolean valid; // индекс соответствует текущим точкам
+
+    public IntegratingTabulatedFunction(TabulatedFunction function) {
+        this.function = function;
+    }
+
+    // Интеграл по отрезку [a, b] (при a > b - со знаком минус)
+    public double integrate(double a, double b) {
+        if (!valid) {
+            rebuild();
+        }
+        TabulatedFunctionCalculus.checkBounds(xs, count, a, b);
+        return integralTo(b) - integralTo(a);
+    }
+
+    // Интеграл от левой границы области определения до x
+    public double getIntegral(double x) {
+        if (!valid) {
+            rebuild();
+        }
+        return integrate(xs[0], x);
+    }
+
+    private double integralTo(double x) {
+        int i = TabulatedFunctionArrays.findIntervalIndex(xs, count, x);
+        return prefixSum(i) + TabulatedFunctionCalculus.partialArea(xs, ys, count, i, x);
+    }
+
+    //Дерево Фенвика
+
+    // Сумма площадей интервалов с номерами 0 .. intervals - 1
+    private double prefixSum(int intervals) {
+        double sum = 0;
+        for (int k = intervals; k > 0; k -= k & -k) {
+            sum += tree[k];
+        }
+        return sum;
+    }
+
+    private void addToInterval(int interval, double delta) {
+        for (int k = interval + 1; k < count; k += k & -k) {
+            tree[k] += delta;
+        }
+    }
+
+    // Построение за O(n): каждый элемент передаёт свою сумму ближайшему родителю
+    private void rebuild() {
+        count = function.getPointsCount();
+        if (xs.length < count) {
+            xs = new double[count];
+            ys = new double[count];
+            tree = new double[count];
+        }
+        function.copyPoints(xs, ys);
+
+        for (int k = 1; k < count; k++) {
+            tree[k] = TabulatedFunctionCalculus.trapezoid(xs, ys, k - 1);
+        }
+        for (int k = 1; k < count; k++) {
+            int parent = k + (k & -k);
+            if (parent < count) {
+                tree[parent] += tree[k];
+            }
+        }
+        valid = true;
+    }
+
+    //Методы интерфейса TabulatedFunction
+
+    public void setPointY(int index, double y) throws FunctionPointIndexOutOfBoundsException {
+        function.setPointY(index, y);
+        if (!valid) {
+            return;
+        }
+        // новое значение читается обратно: обёрнутая функция могла его преобразовать
+        double newY = function.getPointY(index);
+        double delta = newY - ys[index];
+        ys[index] = newY;
+        if (index > 0) {
+            addToInterval(index - 1, (xs[index] - xs[index - 1]) * delta / 2);
+        }
+        if (index < count - 1) {
+            addToInterval(index, (xs[index + 1] - xs[index]) * delta / 2);
+        }
+    }
+
+    public void setPoint(int index, FunctionPoint point)
+            throws FunctionPointIndexOutOfBoundsException, InappropriateFunctionPointException {
+        function.setPoint(index, point);
+        valid = false;
+    }
+
+    public void setPointX(int index, double x)
+            throws FunctionPointIndexOutOfBoundsException, InappropriateFunctionPointException {
+        function.setPointX(index, x);
+        valid = false;
+    }
+
+    public void deletePoint(int index) throws FunctionPointIndexOutOfBoundsException, IllegalStateException {
+        function.deletePoint(index);
+        valid = false;
+    }
+
+    public void addPoint(FunctionPoint point) throws InappropriateFunctionPointException {
+        function.addPoint(point);
+        valid = false;
+    }
+
+    public void addPoints(double[] xs, double[] ys) throws InappropriateFunctionPointException {
+        function.addPoints(xs, ys);
+        valid = false;
+    }
+
+    public int getPointsCount() {
+        return function.getPointsCount();
+    }
+
+    public FunctionPoint getPoint(int index) throws FunctionPointIndexOutOfBoundsException {
+        return function.getPoint(index);
+    }
+
+    public void getPoint(int index, FunctionPoint holder) throws FunctionPointIndexOutOfBoundsException {
+        function.getPoint(index, holder);
+    }
+
+    public int copyPoints(double[] xs, double[] ys) {
+        return function.copyPoints(xs, ys);
+    }
+
+    public void forEachPoint(PointConsumer action) {
+        function.forEachPoint(action);
+    }
+
+    public double getPointX(int index) throws FunctionPointIndexOutOfBoundsException {
+        return function.getPointX(index);
+    }
+
+    public double getPointY(int index) throws FunctionPointIndexOutOfBoundsException {
+        return function.getPointY(index);
+    }
+
+    public double getLeftDomainBorder() {
+        return function.getLeftDomainBorder();
+    }
+
+    public double getRightDomainBorder() {
+        return function.getRightDomainBorder();
+    }
+
+    public double getFunctionValue(double x) {
+        return function.getFunctionValue(x);
+    }
+
+    public void getFunctionValues(double[] xs, double[] out, int offset, int length) {
+        function.getFunctionValues(xs, out, offset, length);
+    }
+}
@@ -0,0 +1,267 @@
+package functions;
+
+// Табулированная функция с выбираемым способом интерполяции между точками.
+// Оборачивает любую табулированную функцию; точки и коэффициенты кубических многочленов
+// на каждом интервале хранятся в массивах double и пересчитываются только после изменений,
+// поэтому вычисление значения не создаёт объектов.
+// Изменять точки нужно через этот объект, иначе закэшированные коэффициенты устареют
+public class InterpolatedTabulatedFunction implements TabulatedFunction {
+
+    private final TabulatedFunction function;
+    private Interpolation interpolation;
+
+    // Кэш: точки и на интервале i значение y = ys[i] + b[i] t + c[i] t^2 + d[i] t^3, где t = x - xs[i]
+    private double[] xs = new double[0];
+    private double[] ys = new double[0];
+    private double[] slopes = new double[0]; // производные в точках (для MONOTONE_CUBIC)
+    private double[] b = new double[0];
+    private double[] c = new double[0];
+    private double[] d = new double[0];
+    private int count;
+    private boolean valid; // кэш соответствует текущим точкам
+
+    public InterpolatedTabulatedFunction(TabulatedFunction function, Interpolation interpolation) {
+        this.function = function;
+        this.interpolation = interpolation;
+    }
+
+    public Interpolation getInterpolation() {
+        return interpolation;
+    }
+
+    public void setInterpolation(Interpolation interpolation) {
+        this.interpolation = interpolation;
+        valid = false;
+    }
+
+    public TabulatedFunction readSafe() {
+        if (interpolation == Interpolation.LINEAR) {
+            // значения берутся из исходной функции
+            return function.readSafe();
+        }
+        // коэффициенты строятся при первом вычислении, дальше чтение их не меняет
+        if (!valid) {
+            rebuild();
+        }
+        return this;
+    }
+
+    public double getFunctionValue(double x) {
+        if (interpolation == Interpolation.LINEAR) {
+            return function.getFunctionValue(x);
+        }
+        if (!valid) {
+            rebuild();
+        }
+        if (!(x >= xs[0] && x <= xs[count - 1])) {
+            return Double.NaN;
+        }
+
+        int i = TabulatedFunctionArrays.findIntervalIndex(xs, count, x);
+        // Если x совпадает с одной из точек
+        if (ArrayTabulatedFunction.Comparison(x, xs[i])) {
+            return ys[i];
+        }
+        if (i == count - 1) {
+            return Double.NaN;
+        }
+        if (ArrayTabulatedFunction.Comparison(x, xs[i + 1])) {
+            return ys[i + 1];
+        }
+
+        double t = x - xs[i];
+        return ys[i] + t * (b[i] + t * (c[i] + t * d[i]));
+    }
+
+    //Пересчёт коэффициентов
+
+    private void rebuild() {
+        count = function.getPointsCount();
+        if (xs.length < count) {
+            xs = new double[count];
+            ys = new double[count];
+            slopes = new double[count];
+            b = new double[count];
+            c = new double[count];
+            d = new double[count];
+        }
+        for (int i = 0; i < count; i++) {
+            xs[i] = function.getPointX(i);
+            ys[i] = function.getPointY(i);
+        }
+
+        if (interpolation == Interpolation.NATURAL_CUBIC_SPLINE) {
+            buildNaturalSpline();
+        } else {
+            for (int i = 0; i < count; i++) {
+                slopes[i] = monotoneSlope(i);
+            }
+            for (int i = 0; i < count - 1; i++) {
+                hermiteCoefficients(i);
+            }
+        }
+        valid = true;
+    }
+
+    // Естественный сплайн: вторые производные M_i из трёхдиагональной системы (метод прогонки),
+    // M_0 = M_n-1 = 0. Здесь c[i] временно хранит M_i / 2, d[i] - прогоночные коэффициенты
+    private void buildNaturalSpline() {
+        int n = count;
+        double[] diagonal = b; // используем b как рабочий массив до вычисления коэффициентов
+        c[0] = 0;
+        diagonal[0] = 1;
+        d[0] = 0;
+        for (int i = 1; i < n - 1; i++) {
+            double h0 = xs[i] - xs[i - 1];
+            double h1 = xs[i + 1] - xs[i];
+            double rhs = 3 * ((ys[i + 1] - ys[i]) / h1 - (ys[i] - ys[i - 1]) / h0);
+            diagonal[i] = 2 * (h0 + h1) - h0 * d[i - 1];
+            d[i] = h1 / diagonal[i];
+            c[i] = (rhs - h0 * c[i - 1]) / diagonal[i];
+        }
+        c[n - 1] = 0;
+        for (int i = n - 2; i >= 1; i--) {
+            c[i] = c[i] - d[i] * c[i + 1];
+        }
+
+        for (int i = 0; i < n - 1; i++) {
+            double h = xs[i + 1] - xs[i];
+            b[i] = (ys[i + 1] - ys[i]) / h - h * (c[i + 1] + 2 * c[i]) / 3;
+            d[i] = (c[i + 1] - c[i]) / (3 * h);
+        }
+    }
+
+    // Производная в точке i для монотонного сплайна (Фритч-Карлсон, краевые формулы как в PCHIP)
+    private double monotoneSlope(int i) {
+        if (count == 2) {
+            return (ys[1] - ys[0]) / (xs[1] - xs[0]);
+        }
+        if (i == 0) {
+            return edgeSlope(xs[1] - xs[0], xs[2] - xs[1], delta(0), delta(1));
+        }
+        if (i == count - 1) {
+            return edgeSlope(xs[i] - xs[i - 1], xs[i - 1] - xs[i - 2], delta(i - 1), delta(i - 2));
+        }
+
+        double delta0 = delta(i - 1);
+        double delta1 = delta(i);
+        if (delta0 * delta1 <= 0) {
+            return 0;
+        }
+        double h0 = xs[i] - xs[i - 1];
+        double h1 = xs[i + 1] - xs[i];
+        double w1 = 2 * h1 + h0;
+        double w2 = h1 + 2 * h0;
+        return (w1 + w2) / (w1 / delta0 + w2 / delta1);
+    }
+
+    // Трёхточечная оценка производной на краю с ограничениями, сохраняющими монотонность
+    private static double edgeSlope(double h0, double h1, double delta0, double delta1) {
+        double slope = ((2 * h0 + h1) * delta0 - h0 * delta1) / (h0 + h1);
+        if (Math.signum(slope) != Math.signum(delta0)) {
+            return 0;
+        }
+        if (Math.signum(delta0) != Math.signum(delta1) && Math.abs(slope) > 3 * Math.abs(delta0)) {
+            return 3 * delta0;
+        }
+        return slope;
+    }
+
+    private double delta(int i) {
+        return (ys[i + 1] - ys[i]) / (xs[i + 1] - xs[i]);
+    }
+
+    // Коэффициенты эрмитова многочлена на интервале i по значениям и производным на концах
+    private void hermiteCoefficients(int i) {
+        double h = xs[i + 1] - xs[i];
+        double delta = delta(i);
+        b[i] = slopes[i];
+        c[i] = (3 * delta - 2 * slopes[i] - slopes[i + 1]) / h;
+        d[i] = (slopes[i] + slopes[i + 1] - 2 * delta) / (h * h);
+    }
+
+    //Методы интерфейса TabulatedFunction
+
+    public int getPointsCount() {
+        return function.getPointsCount();
+    }
+
+    public FunctionPoint getPoint(int index) throws FunctionPointIndexOutOfBoundsException {
+        return function.getPoint(index);
+    }
+
+    public void setPoint(int index, FunctionPoint point)
+            throws FunctionPointIndexOutOfBoundsException, InappropriateFunctionPointException {
+        function.setPoint(index, point);
+        valid = false;
+    }
+
+    public void getPoint(int index, FunctionPoint holder) throws FunctionPointIndexOutOfBoundsException {
+        function.getPoint(index, holder);
+    }
+
+    public int copyPoints(double[] xs, double[] ys) {
+        return function.copyPoints(xs, ys);
+    }
+
+    public void forEachPoint(PointConsumer action) {
+        function.forEachPoint(action);
+    }
+
+    public double getPointX(int index) throws FunctionPointIndexOutOfBoundsException {
+        return function.getPointX(index);
+    }
+
+    public void setPointX(int index, double x)
+            throws FunctionPointIndexOutOfBoundsException, InappropriateFunctionPointException {
+        function.setPointX(index, x);
+        valid = false;
+    }
+
+    public double getPointY(int index) throws FunctionPointIndexOutOfBoundsException {
+        return function.getPointY(index);
+    }
+
+    // Для монотонного сплайна ордината влияет только на производные в соседних точках,
+    // поэтому пересчитываются лишь несколько интервалов; сплайн целиком зависит от каждой точки
+    public void setPointY(int index, double y) throws FunctionPointIndexOutOfBoundsException {
+        function.setPointY(index, y);
+        if (!valid || interpolation != Interpolation.MONOTONE_CUBIC) {
+            valid = false;
+            return;
+        }
+
+        ys[index] = y;
+        int from = Math.max(index - 2, 0);
+        int to = Math.min(index + 2, count - 1);
+        for (int i = from; i <= to; i++) {
+            slopes[i] = monotoneSlope(i);
+        }
+        for (int i = Math.max(from - 1, 0); i <= Math.min(to, count - 2); i++) {
+            hermiteCoefficients(i);
+        }
+    }
+
+    public void deletePoint(int index) throws FunctionPointIndexOutOfBoundsException, IllegalStateException {
+        function.deletePoint(index);
+        valid = false;
+    }
+
+    public void addPoint(FunctionPoint point) throws InappropriateFunctionPointException {
+        function.addPoint(point);
+        valid = false;
+    }
+
+    public void addPoints(double[] xs, double[] ys) throws InappropriateFunctionPointException {
+        function.addPoints(xs, ys);
+        valid = false;
+    }
+
+    public double getLeftDomainBorder() {
+        return function.getLeftDomainBorder();
+    }
+
+    public double getRightDomainBorder() {
+        return function.getRightDomainBorder();
+    }
+}
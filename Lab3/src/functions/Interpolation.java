@@ -0,0 +1,8 @@
+package functions;
+
+// Способ вычисления значения функции между точками
+public enum Interpolation {
+    LINEAR,                 // кусочно-линейная интерполяция
+    NATURAL_CUBIC_SPLINE,   // естественный кубический сплайн (нулевая вторая производная на концах)
+    MONOTONE_CUBIC          // монотонный кубический эрмитов сплайн (PCHIP, Фритч-Карлсон)
+}
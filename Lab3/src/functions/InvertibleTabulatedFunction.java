@@ -0,0 +1,197 @@
+package functions;
+
+// Табулированная функция с поиском обратного значения и корней.
+// Точки и признак монотонности запоминаются при первом обращении и сбрасываются любым изменением,
+// выполненным через этот объект. Для монотонной функции getInverseValue находит x
+// бинарным поиском по ординатам за O(log n); findRoots работает для любой функции одним проходом.
+// Изменять точки нужно через этот объект, иначе запомненные точки устареют
+public class InvertibleTabulatedFunction implements TabulatedFunction {
+
+    private static final int NOT_MONOTONE = 0;
+    private static final int INCREASING = 1; // неубывающая, в том числе постоянная
+    private static final int DECREASING = -1; // невозрастающая
+
+    private final TabulatedFunction function;
+
+    private double[] xs = new double[0];
+    private double[] ys = new double[0];
+    private int count;
+    private int monotonicity;
+    private boolean valid; // запомненные точки соответствуют текущим
+
+    public InvertibleTabulatedFunction(TabulatedFunction function) {
+        this.function = function;
+    }
+
+    public boolean isMonotone() {
+        if (!valid) {
+            rebuild();
+        }
+        return monotonicity != NOT_MONOTONE;
+    }
+
+    // Наименьший x, при котором значение функции равно y, или NaN, если y вне области значений.
+    // Функция должна быть монотонной
+    public double getInverseValue(double y) {
+        if (!valid) {
+            rebuild();
+        }
+        if (monotonicity == NOT_MONOTONE) {
+            throw new IllegalStateException("Функция не монотонна");
+        }
+        boolean increasing = monotonicity == INCREASING;
+        double low = increasing ? ys[0] : ys[count - 1];
+        double high = increasing ? ys[count - 1] : ys[0];
+        if (!(y >= low && y <= high)) {
+            return Double.NaN;
+        }
+
+        // первая точка, в которой функция уже достигла y
+        int left = 0;
+        int right = count - 1;
+        while (left < right) {
+            int middle = (left + right) >>> 1;
+            if (increasing ? ys[middle] >= y : ys[middle] <= y) {
+                right = middle;
+            } else {
+                left = middle + 1;
+            }
+        }
+        if (ys[left] == y || left == 0) {
+            return xs[left];
+        }
+        return interpolateRoot(left - 1, y);
+    }
+
+    // Все x, при которых значение функции равно c, по возрастанию.
+    // Узлы с ординатой c входят в результат; у горизонтального отрезка на уровне c
+    // возвращаются только его концы
+    public double[] findRoots(double c) {
+        if (!valid) {
+            rebuild();
+        }
+        double[] roots = new double[16];
+        int found = 0;
+        for (int i = 0; i < count; i++) {
+            double root;
+            if (ys[i] == c) {
+                root = xs[i];
+            } else if (i < count - 1 && ((ys[i] < c && ys[i + 1] > c) || (ys[i] > c && ys[i + 1] < c))) {
+                root = interpolateRoot(i, c);
+            } else {
+                continue;
+            }
+            if (found == roots.length) {
+                double[] grown = new double[roots.length * 2];
+                System.arraycopy(roots, 0, grown, 0, found);
+                roots = grown;
+            }
+            roots[found++] = root;
+        }
+
+        double[] result = new double[found];
+        System.arraycopy(roots, 0, result, 0, found);
+        return result;
+    }
+
+    // x на интервале [xs[i], xs[i + 1]], где линейная интерполяция даёт y
+    private double interpolateRoot(int i, double y) {
+        return xs[i] + (y - ys[i]) * (xs[i + 1] - xs[i]) / (ys[i + 1] - ys[i]);
+    }
+
+    private void rebuild() {
+        count = function.getPointsCount();
+        if (xs.length < count) {
+            xs = new double[count];
+            ys = new double[count];
+        }
+        function.copyPoints(xs, ys);
+
+        boolean increasing = true;
+        boolean decreasing = true;
+        for (int i = 1; i < count && (increasing || decreasing); i++) {
+            increasing &= ys[i] >= ys[i - 1];
+            decreasing &= ys[i] <= ys[i - 1];
+        }
+        monotonicity = increasing ? INCREASING : (decreasing ? DECREASING : NOT_MONOTONE);
+        valid = true;
+    }
+
+    //Методы интерфейса TabulatedFunction
+
+    public int getPointsCount() {
+        return function.getPointsCount();
+    }
+
+    public FunctionPoint getPoint(int index) throws FunctionPointIndexOutOfBoundsException {
+        return function.getPoint(index);
+    }
+
+    public void getPoint(int index, FunctionPoint holder) throws FunctionPointIndexOutOfBoundsException {
+        function.getPoint(index, holder);
+    }
+
+    public int copyPoints(double[] xs, double[] ys) {
+        return function.copyPoints(xs, ys);
+    }
+
+    public void forEachPoint(PointConsumer action) {
+        function.forEachPoint(action);
+    }
+
+    public void setPoint(int index, FunctionPoint point)
+            throws FunctionPointIndexOutOfBoundsException, InappropriateFunctionPointException {
+        function.setPoint(index, point);
+        valid = false;
+    }
+
+    public double getPointX(int index) throws FunctionPointIndexOutOfBoundsException {
+        return function.getPointX(index);
+    }
+
+    public void setPointX(int index, double x)
+            throws FunctionPointIndexOutOfBoundsException, InappropriateFunctionPointException {
+        function.setPointX(index, x);
+        valid = false;
+    }
+
+    public double getPointY(int index) throws FunctionPointIndexOutOfBoundsException {
+        return function.getPointY(index);
+    }
+
+    public void setPointY(int index, double y) throws FunctionPointIndexOutOfBoundsException {
+        function.setPointY(index, y);
+        valid = false;
+    }
+
+    public void deletePoint(int index) throws FunctionPointIndexOutOfBoundsException, IllegalStateException {
+        function.deletePoint(index);
+        valid = false;
+    }
+
+    public void addPoint(FunctionPoint point) throws InappropriateFunctionPointException {
+        function.addPoint(point);
+        valid = false;
+    }
+
+    public void addPoints(double[] xs, double[] ys) throws InappropriateFunctionPointException {
+        function.addPoints(xs, ys);
+        valid = false;
+    }
+
+    public double getLeftDomainBorder() {
+        return function.getLeftDomainBorder();
+    }
+
+    public double getRightDomainBorder() {
+        return function.getRightDomainBorder();
+    }
+
+    public double getFunctionValue(double x) {
+        return function.getFunctionValue(x);
+    }
+
+    public void getFunctionValues(double[] xs, double[] out, int offset, int length) {
+        function.getFunctionValues(xs, out, offset, length);
+    }
+}
@@ -0,0 +1,93 @@
+package functions;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// Гистограмма длительностей операций в наносекундах с логарифмическими корзинами:
+// корзина i (i > 0) содержит значения из [2^(i-1), 2^i), корзина 0 - нулевые и отрицательные.
+// Запись - одно обращение к LongAdder, поэтому гистограмму можно разделять между потоками
+public final class LatencyHistogram {
+
+    public static final int BUCKETS = 64;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+    private final LongAdder totalNanos = new LongAdder();
+
+    public LatencyHistogram() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        buckets[BUCKETS - Long.numberOfLeadingZeros(nanos)].increment();
+        totalNanos.add(nanos);
+    }
+
+    public long getCount() {
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            count += buckets[i].sum();
+        }
+        return count;
+    }
+
+    public long getTotalNanos() {
+        return totalNanos.sum();
+    }
+
+    public long getBucketCount(int bucket) {
+        return buckets[bucket].sum();
+    }
+
+    // Верхняя граница корзины (не включительно)
+    public static long getBucketUpperBound(int bucket) {
+        return bucket == 0 ? 1 : (bucket == BUCKETS - 1 ? Long.MAX_VALUE : 1L << bucket);
+    }
+
+    public long[] getBucketCounts() {
+        long[] counts = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets[i].sum();
+        }
+        return counts;
+    }
+
+    public double getMeanNanos() {
+        long count = getCount();
+        return count == 0 ? Double.NaN : (double) getTotalNanos() / count;
+    }
+
+    // Оценка квантиля сверху: верхняя граница корзины, в которую он попадает
+    public long getPercentileNanos(double quantile) {
+        if (!(quantile >= 0 && quantile <= 1)) {
+            throw new IllegalArgumentException("Квантиль должен лежать в [0, 1]");
+        }
+        long[] counts = getBucketCounts();
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            count += counts[i];
+        }
+        if (count == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(quantile * count);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank && seen > 0) {
+                return getBucketUpperBound(i);
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i].reset();
+        }
+        totalNanos.reset();
+    }
+}
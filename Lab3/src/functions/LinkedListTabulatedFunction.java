@@ -17,6 +17,7 @@ public class LinkedListTabulatedFunction implements TabulatedFunction {
     private FunctionNode lastReadWriteNode; // Последний доступный узел для оптимизации
     private int lastReadWriteIndex; // Индекс последнего доступного узла
     private int size; // Кол-во точек
+    private int modCount; // Счётчик изменений структуры списка (для курсоров)
 
     public LinkedListTabulatedFunction(double leftX, double rightX, int pointsCount)
             throws IllegalArgumentException {
@@ -56,6 +57,26 @@ public class LinkedListTabulatedFunction implements TabulatedFunction {
         }
     }
 
+    // Создание по произвольному набору точек (абсциссы должны строго возрастать)
+    public LinkedListTabulatedFunction(double[] xs, double[] ys)
+            throws IllegalArgumentException {
+        if (xs.length != ys.length) {
+            throw new IllegalArgumentException("Количество абсцисс и ординат не совпадает");
+        }
+        if (xs.length < 2) {
+            throw new IllegalArgumentException("Количество точек меньше 2");
+        }
+
+        initializeList();
+
+        for (int i = 0; i < xs.length; i++) {
+            if (i > 0 && (xs[i] < xs[i - 1] || ArrayTabulatedFunction.Comparison(xs[i], xs[i - 1]))) {
+                throw new IllegalArgumentException("Абсциссы точек должны строго возрастать");
+            }
+            addNodeToTail(new FunctionPoint(xs[i], ys[i]));
+        }
+    }
+
     // Инициализация пустого списка
     private void initializeList() {
         head = new FunctionNode(null);
@@ -79,11 +100,19 @@ public class LinkedListTabulatedFunction implements TabulatedFunction {
         if (lastReadWriteIndex != -1 && Math.abs(index - lastReadWriteIndex) < Math.min(index, size - index)) {
             node = lastReadWriteNode;
             startIndex = lastReadWriteIndex;
+            if (TabulatedFunctionMetrics.ENABLED) {
+                TabulatedFunctionMetrics.LINKED_LIST_CACHE_HITS.increment();
+            }
         } else {
             node = head.next;
             startIndex = 0;
         }
 
+        if (TabulatedFunctionMetrics.ENABLED) {
+            TabulatedFunctionMetrics.LINKED_LIST_NODE_LOOKUPS.increment();
+            TabulatedFunctionMetrics.LINKED_LIST_NODES_WALKED.add(Math.abs(index - startIndex));
+        }
+
         // Движение вперед или назад
         if (index > startIndex) {
             for (int i = startIndex; i < index; i++) {
@@ -113,6 +142,7 @@ public class LinkedListTabulatedFunction implements TabulatedFunction {
         head.last = newNode;
 
         size++;
+        modCount++;
         lastReadWriteNode = newNode;
         lastReadWriteIndex = size - 1;
 
@@ -140,6 +170,7 @@ public class LinkedListTabulatedFunction implements TabulatedFunction {
         nextNode.last = newNode;
 
         size++;
+        modCount++;
         lastReadWriteNode = newNode;
         lastReadWriteIndex = index;
 
@@ -161,6 +192,7 @@ public class LinkedListTabulatedFunction implements TabulatedFunction {
         nextNode.last = prevNode;
 
         size--;
+        modCount++;
 
         // Обновление последнего доступного узла
         if (size == 0) {
@@ -186,6 +218,32 @@ public class LinkedListTabulatedFunction implements TabulatedFunction {
         return new FunctionPoint(getNodeByIndex(index).point);
     }
 
+    public void getPoint(int index, FunctionPoint holder) throws FunctionPointIndexOutOfBoundsException {
+        FunctionPoint point = getNodeByIndex(index).point;
+        holder.setter_x(point.getter_x());
+        holder.setter_y(point.getter_y());
+    }
+
+    // Выгрузка и обход идут одним проходом по списку, без поиска узла по номеру
+    public int copyPoints(double[] xs, double[] ys) {
+        if (size > xs.length || size > ys.length) {
+            throw new IndexOutOfBoundsException("Диапазон выходит за границы массива");
+        }
+        int i = 0;
+        for (FunctionNode node = head.next; node != head; node = node.next) {
+            xs[i] = node.point.getter_x();
+            ys[i] = node.point.getter_y();
+            i++;
+        }
+        return size;
+    }
+
+    public void forEachPoint(PointConsumer action) {
+        for (FunctionNode node = head.next; node != head; node = node.next) {
+            action.accept(node.point.getter_x(), node.point.getter_y());
+        }
+    }
+
     public void setPoint(int index, FunctionPoint point)
             throws FunctionPointIndexOutOfBoundsException, InappropriateFunctionPointException {
         FunctionNode node = getNodeByIndex(index);
@@ -256,6 +314,58 @@ public class LinkedListTabulatedFunction implements TabulatedFunction {
         addNodeByIndex(index, new FunctionPoint(point));
     }
 
+    // Добавление пачки точек за два прохода по списку: проверка, затем вставка узлов.
+    // Если хотя бы одна точка не подходит, функция не меняется
+    public void addPoints(double[] xs, double[] ys) throws InappropriateFunctionPointException {
+        double[] addXs = xs.clone();
+        double[] addYs = ys.clone();
+        TabulatedFunctionArrays.sortBatch(addXs, addYs);
+
+        // Проверка на дублирование X
+        FunctionNode current = head.next;
+        for (int k = 0; k < addXs.length; k++) {
+            while (current != head && current.point.getter_x() < addXs[k]) {
+                current = current.next;
+            }
+            if ((current != head && Math.abs(current.point.getter_x() - addXs[k]) < 1e-10)
+                    || (current.last != head && Math.abs(current.last.point.getter_x() - addXs[k]) < 1e-10)) {
+                throw new InappropriateFunctionPointException("Точка с такой координатой х уже существует");
+            }
+        }
+
+        // Вставка: новый узел встаёт перед первым узлом с большей абсциссой
+        current = head.next;
+        for (int k = 0; k < addXs.length; k++) {
+            while (current != head && current.point.getter_x() < addXs[k]) {
+                current = current.next;
+            }
+            FunctionNode newNode = new FunctionNode(new FunctionPoint(addXs[k], addYs[k]));
+            newNode.last = current.last;
+            newNode.next = current;
+            current.last.next = newNode;
+            current.last = newNode;
+        }
+
+        size += addXs.length;
+        modCount++;
+        // номера узлов сдвинулись, сохранённый узел больше не соответствует номеру
+        lastReadWriteNode = head;
+        lastReadWriteIndex = -1;
+    }
+
+    // Неизменяемая копия в виде массивов (один проход по списку)
+    public ImmutableTabulatedFunction freeze() {
+        double[] xs = new double[size];
+        double[] ys = new double[size];
+        FunctionNode curr = head.next;
+        for (int i = 0; i < size; i++) {
+            xs[i] = curr.point.getter_x();
+            ys[i] = curr.point.getter_y();
+            curr = curr.next;
+        }
+        return new ImmutableTabulatedFunction(xs, ys);
+    }
+
     public double getLeftDomainBorder() {
         if (size == 0) return Double.NaN;
         return head.next.point.getter_x();
@@ -271,8 +381,105 @@ public class LinkedListTabulatedFunction implements TabulatedFunction {
             return Double.NaN;
         }
 
-        // Поиск интервала, в котором есть x
+        // Поиск начинается с последнего использованного узла, поэтому при
+        // монотонном проходе по x каждый вызов сдвигается лишь на несколько узлов
+        FunctionNode curr;
+        int index;
+        if (lastReadWriteIndex == -1) {
+            curr = head.next;
+            index = 0;
+        } else {
+            curr = lastReadWriteNode;
+            index = lastReadWriteIndex;
+        }
+        while (curr.next != head && curr.next.point.getter_x() < x) {
+            curr = curr.next;
+            index++;
+        }
+        while (curr != head.next && curr.point.getter_x() >= x) {
+            curr = curr.last;
+            index--;
+        }
+        while (curr != head.next && Math.abs(x - curr.last.point.getter_x()) < 1e-10) {
+            curr = curr.last;
+            index--;
+        }
+
+        lastReadWriteNode = curr;
+        lastReadWriteIndex = index;
+
+        return valueFromNode(curr, x);
+    }
+
+    // Курсор для последовательного вычисления значений: хранит свой текущий узел,
+    // поэтому несколько независимых проходов по одному списку не сбивают друг другу позицию
+    public class Cursor {
+        private FunctionNode node = head.next;
+        private int expectedModCount = modCount;
+
+        private Cursor() {
+        }
+
+        public double getFunctionValue(double x) {
+            if (x < getLeftDomainBorder() || x > getRightDomainBorder()) {
+                return Double.NaN;
+            }
+            // после добавления или удаления точек узел мог быть удалён из списка
+            if (expectedModCount != modCount) {
+                node = head.next;
+                expectedModCount = modCount;
+            }
+            node = findStartNode(node, x);
+            return valueFromNode(node, x);
+        }
+    }
+
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    // Пакетное вычисление. Текущий узел сдвигается от предыдущей абсциссы,
+    // так что для возрастающих xs весь список проходится один раз: O(n + m)
+    public void getFunctionValues(double[] xs, double[] out, int offset, int length) {
+        if (offset < 0 || length < 0 || offset + length > xs.length || offset + length > out.length) {
+            throw new IndexOutOfBoundsException("Диапазон выходит за границы массива");
+        }
+
+        double left = getLeftDomainBorder();
+        double right = getRightDomainBorder();
         FunctionNode curr = head.next;
+
+        for (int k = offset; k < offset + length; k++) {
+            double x = xs[k];
+            if (!(x >= left && x <= right)) {
+                out[k] = Double.NaN;
+                continue;
+            }
+            curr = findStartNode(curr, x);
+            out[k] = valueFromNode(curr, x);
+        }
+    }
+
+    // Сдвиг от узла from к последнему узлу с абсциссой строго меньше x (или к первому узлу),
+    // с которого поиск интервала даст тот же результат, что и поиск от начала списка
+    private FunctionNode findStartNode(FunctionNode from, double x) {
+        FunctionNode curr = from;
+        while (curr.next != head && curr.next.point.getter_x() < x) {
+            curr = curr.next;
+        }
+        while (curr != head.next && curr.point.getter_x() >= x) {
+            curr = curr.last;
+        }
+        // более левая точка, совпадающая с x с точностью до эпсилон, имеет приоритет
+        while (curr != head.next && Math.abs(x - curr.last.point.getter_x()) < 1e-10) {
+            curr = curr.last;
+        }
+        return curr;
+    }
+
+    // Поиск интервала, в котором есть x, начиная с узла start
+    private double valueFromNode(FunctionNode start, double x) {
+        FunctionNode curr = start;
         while (curr.next != head) {
             double x1 = curr.point.getter_x();
             if (Math.abs(x - x1) < 1e-10) {
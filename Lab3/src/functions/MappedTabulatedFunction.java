@@ -0,0 +1,260 @@
+package functions;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Табулированная функция, точки которой лежат в файле, отображённом в память (FileChannel.map).
+// Данные не копируются в кучу, открытие не зависит от размера таблицы.
+//
+// Файл имеет формат TabulatedFunctionWriter без флага равномерной сетки:
+// заголовок из 16 байт, затем n абсцисс и n ординат (double, little-endian).
+//
+// Количество точек в файле фиксировано: addPoint и deletePoint не поддерживаются,
+// setPointX, setPointY и setPoint изменяют файл на месте (если он открыт для записи)
+public class MappedTabulatedFunction implements TabulatedFunction, AutoCloseable {
+
+    private static final int HEADER_SIZE = TabulatedFunctionWriter.HEADER_SIZE;
+
+    // Файл отображается частями по 1 ГБ (один MappedByteBuffer не может быть больше 2 ГБ).
+    // Размер части кратен 8, поэтому число double никогда не попадает на границу частей
+    private static final int CHUNK_BITS = 30;
+    private static final long CHUNK_SIZE = 1L << CHUNK_BITS;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer[] chunks;
+    private final boolean writable;
+    private final int pointsCount;
+    private final long xsOffset;
+    private final long ysOffset;
+
+    private MappedTabulatedFunction(FileChannel channel, boolean writable) throws IOException {
+        this.channel = channel;
+        this.writable = writable;
+
+        long fileSize = channel.size();
+        if (fileSize < HEADER_SIZE) {
+            throw new IOException("Файл не содержит табулированную функцию");
+        }
+        int chunkCount = (int) ((fileSize + CHUNK_SIZE - 1) >>> CHUNK_BITS);
+        this.chunks = new MappedByteBuffer[chunkCount];
+        FileChannel.MapMode mode = writable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY;
+        for (int c = 0; c < chunkCount; c++) {
+            long start = (long) c << CHUNK_BITS;
+            chunks[c] = channel.map(mode, start, Math.min(CHUNK_SIZE, fileSize - start));
+            chunks[c].order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        for (int i = 0; i < TabulatedFunctionWriter.SIGNATURE.length; i++) {
+            if (chunks[0].get(i) != TabulatedFunctionWriter.SIGNATURE[i]) {
+                throw new IOException("Файл не содержит табулированную функцию");
+            }
+        }
+        if (chunks[0].get(4) != TabulatedFunctionWriter.VERSION) {
+            throw new IOException("Неподдерживаемая версия формата: " + chunks[0].get(4));
+        }
+        if ((chunks[0].get(5) & TabulatedFunctionWriter.FLAG_UNIFORM) != 0) {
+            throw new IOException("Файл с равномерной сеткой не хранит абсциссы и не может быть отображён");
+        }
+        long count = chunks[0].getLong(8);
+        if (count < 2 || count > Integer.MAX_VALUE || fileSize < HEADER_SIZE + count * 16) {
+            throw new IOException("Неверное количество точек в файле: " + count);
+        }
+
+        this.pointsCount = (int) count;
+        this.xsOffset = HEADER_SIZE;
+        this.ysOffset = HEADER_SIZE + count * 8;
+    }
+
+    // Открытие существующего файла
+    public static MappedTabulatedFunction open(Path path, boolean writable) throws IOException {
+        FileChannel channel = writable
+                ? FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)
+                : FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            return new MappedTabulatedFunction(channel, writable);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    // Запись точек функции в файл указанного формата и открытие его для чтения и записи
+    public static MappedTabulatedFunction create(Path path, TabulatedFunction function) throws IOException {
+        int count = function.getPointsCount();
+        long fileSize = HEADER_SIZE + (long) count * 16;
+
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            header.put(TabulatedFunctionWriter.SIGNATURE).put(TabulatedFunctionWriter.VERSION).put((byte) 0)
+                    .putShort((short) 0).putLong(count).flip();
+            channel.write(header, 0);
+            // последний байт, чтобы файл сразу получил нужный размер
+            channel.write(ByteBuffer.wrap(new byte[1]), fileSize - 1);
+
+            MappedTabulatedFunction mapped = new MappedTabulatedFunction(channel, true);
+            for (int i = 0; i < count; i++) {
+                mapped.write(mapped.xsOffset + (long) i * 8, function.getPointX(i));
+                mapped.write(mapped.ysOffset + (long) i * 8, function.getPointY(i));
+            }
+            return mapped;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    // Сброс изменений на диск
+    public void force() {
+        for (MappedByteBuffer chunk : chunks) {
+            chunk.force();
+        }
+    }
+
+    // Закрывает канал; сами отображения освобождаются сборщиком мусора
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private double read(long position) {
+        return chunks[(int) (position >>> CHUNK_BITS)].getDouble((int) (position & (CHUNK_SIZE - 1)));
+    }
+
+    private void write(long position, double value) {
+        if (!writable) {
+            throw new UnsupportedOperationException("Файл открыт только для чтения");
+        }
+        chunks[(int) (position >>> CHUNK_BITS)].putDouble((int) (position & (CHUNK_SIZE - 1)), value);
+    }
+
+    private double x(int index) {
+        return read(xsOffset + (long) index * 8);
+    }
+
+    private double y(int index) {
+        return read(ysOffset + (long) index * 8);
+    }
+
+    //Методы интерфейса TabulatedFunction
+
+    public int getPointsCount() {
+        return pointsCount;
+    }
+
+    public FunctionPoint getPoint(int index) throws FunctionPointIndexOutOfBoundsException {
+        checkIndex(index);
+        return new FunctionPoint(x(index), y(index));
+    }
+
+    public void setPoint(int index, FunctionPoint point)
+            throws FunctionPointIndexOutOfBoundsException, InappropriateFunctionPointException {
+        checkIndex(index);
+        checkNeighbours(index, point.getter_x());
+        write(xsOffset + (long) index * 8, point.getter_x());
+        write(ysOffset + (long) index * 8, point.getter_y());
+    }
+
+    public double getPointX(int index) throws FunctionPointIndexOutOfBoundsException {
+        checkIndex(index);
+        return x(index);
+    }
+
+    public void setPointX(int index, double x)
+            throws FunctionPointIndexOutOfBoundsException, InappropriateFunctionPointException {
+        checkIndex(index);
+        checkNeighbours(index, x);
+        write(xsOffset + (long) index * 8, x);
+    }
+
+    public double getPointY(int index) throws FunctionPointIndexOutOfBoundsException {
+        checkIndex(index);
+        return y(index);
+    }
+
+    public void setPointY(int index, double y) throws FunctionPointIndexOutOfBoundsException {
+        checkIndex(index);
+        write(ysOffset + (long) index * 8, y);
+    }
+
+    public void deletePoint(int index) {
+        throw new UnsupportedOperationException("Количество точек в файле фиксировано");
+    }
+
+    public void addPoint(FunctionPoint point) {
+        throw new UnsupportedOperationException("Количество точек в файле фиксировано");
+    }
+
+    public double getLeftDomainBorder() {
+        return x(0);
+    }
+
+    public double getRightDomainBorder() {
+        return x(pointsCount - 1);
+    }
+
+    // Чтение идёт по абсолютным позициям отображённого файла, копия не нужна
+    public TabulatedFunction readSafe() {
+        return this;
+    }
+
+    public double getFunctionValue(double x) {
+        if (!(x >= x(0) && x <= x(pointsCount - 1))) {
+            return Double.NaN;
+        }
+
+        // бинарный поиск наибольшей точки с абсциссой <= x
+        int i = 0;
+        int high = pointsCount - 1;
+        while (i < high) {
+            int mid = (i + high + 1) >>> 1;
+            if (x(mid) <= x) {
+                i = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+
+        // Если x совпадает с одной из точек (берём самую левую из подходящих)
+        double x1 = x(i);
+        if (ArrayTabulatedFunction.Comparison(x, x1)) {
+            while (i > 0 && ArrayTabulatedFunction.Comparison(x, x(i - 1))) {
+                i--;
+            }
+            return y(i);
+        }
+        if (i == pointsCount - 1) {
+            return Double.NaN;
+        }
+        double x2 = x(i + 1);
+        if (ArrayTabulatedFunction.Comparison(x, x2)) {
+            return y(i + 1);
+        }
+
+        // Линейная интерполяция
+        double y1 = y(i);
+        double y2 = y(i + 1);
+        return y1 + (y2 - y1) * (x - x1) / (x2 - x1);
+    }
+
+    private void checkIndex(int index) throws FunctionPointIndexOutOfBoundsException {
+        if (index < 0 || index >= pointsCount) {
+            throw new FunctionPointIndexOutOfBoundsException(index);
+        }
+    }
+
+    // x должен лежать строго между абсциссами соседних точек
+    private void checkNeighbours(int index, double x) throws InappropriateFunctionPointException {
+        if (index > 0 && (x < x(index - 1) || ArrayTabulatedFunction.Comparison(x, x(index - 1)))) {
+            throw new InappropriateFunctionPointException("X лежит вне определенного интервала");
+        }
+        if (index < pointsCount - 1 && (x > x(index + 1) || ArrayTabulatedFunction.Comparison(x, x(index + 1)))) {
+            throw new InappropriateFunctionPointException("X лежит вне определенного интервала");
+        }
+    }
+}
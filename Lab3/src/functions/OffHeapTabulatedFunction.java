@@ -0,0 +1,312 @@
+package functions;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+
+// Табулированная функция, абсциссы и ординаты которой лежат вне кучи - в двух сегментах памяти
+// (java.lang.foreign), выделенных из Arena. Сборщик мусора видит только сам объект,
+// а не данные точек, поэтому тысячи таких таблиц не добавляют ему работы.
+//
+// Память освобождается явно методом close(); после него любое обращение к точкам выбрасывает
+// IllegalStateException. При росте (addPoint) и заметном уменьшении (deletePoint) данные
+// копируются в новые сегменты из новой Arena, а старая сразу закрывается.
+// Arena общая (ofShared), поэтому читать функцию можно из любого потока; изменять - как и
+// остальные реализации, только из одного потока без параллельного чтения
+public class OffHeapTabulatedFunction implements TabulatedFunction, AutoCloseable {
+
+    private static final ValueLayout.OfDouble DOUBLE = ValueLayout.JAVA_DOUBLE;
+    private static final long BYTES = DOUBLE.byteSize();
+
+    private Arena arena; // null после close()
+    private MemorySegment xs;
+    private MemorySegment ys;
+    private int capacity;
+    private int pointsCount;
+
+    public OffHeapTabulatedFunction(double leftX, double rightX, int pointsCount)
+            throws IllegalArgumentException {
+        if (leftX >= rightX) {
+            throw new IllegalArgumentException("Левая граница области определения больше или равна правой");
+        }
+        if (pointsCount < 2) {
+            throw new IllegalArgumentException("Количество точек меньше 2");
+        }
+
+        allocate(pointsCount + 10);
+        this.pointsCount = pointsCount;
+
+        double step = (rightX - leftX) / (pointsCount - 1);
+        for (int i = 0; i < pointsCount; i++) {
+            xs.setAtIndex(DOUBLE, i, leftX + i * step);
+        }
+    }
+
+    public OffHeapTabulatedFunction(double leftX, double rightX, double[] values)
+            throws IllegalArgumentException {
+        this(leftX, rightX, values.length);
+        MemorySegment.copy(values, 0, ys, DOUBLE, 0, values.length);
+    }
+
+    // Копирование точек любой табулированной функции
+    public OffHeapTabulatedFunction(TabulatedFunction function) {
+        int count = function.getPointsCount();
+        double[] copyX = new double[count];
+        double[] copyY = new double[count];
+        function.copyPoints(copyX, copyY);
+
+        allocate(count + 10);
+        this.pointsCount = count;
+        MemorySegment.copy(copyX, 0, xs, DOUBLE, 0, count);
+        MemorySegment.copy(copyY, 0, ys, DOUBLE, 0, count);
+    }
+
+    // Освобождение памяти точек; повторный вызов ничего не делает
+    public void close() {
+        if (arena != null) {
+            arena.close();
+            arena = null;
+            xs = null;
+            ys = null;
+        }
+    }
+
+    public boolean isOpen() {
+        return arena != null;
+    }
+
+    // Объём памяти вне кучи, занятый точками, в байтах
+    public long getAllocatedBytes() {
+        return arena == null ? 0 : 2L * capacity * BYTES;
+    }
+
+    //Управление памятью
+
+    private void allocate(int capacity) {
+        this.arena = Arena.ofShared();
+        this.xs = arena.allocate(capacity * BYTES, BYTES);
+        this.ys = arena.allocate(capacity * BYTES, BYTES);
+        this.capacity = capacity;
+    }
+
+    // Перенос точек в новые сегменты заданной ёмкости и освобождение старых
+    private void reallocate(int newCapacity) {
+        Arena oldArena = arena;
+        MemorySegment oldXs = xs;
+        MemorySegment oldYs = ys;
+        allocate(newCapacity);
+        MemorySegment.copy(oldXs, 0, xs, 0, pointsCount * BYTES);
+        MemorySegment.copy(oldYs, 0, ys, 0, pointsCount * BYTES);
+        oldArena.close();
+        if (TabulatedFunctionMetrics.ENABLED) {
+            TabulatedFunctionMetrics.ARRAY_RESIZES.increment();
+        }
+    }
+
+    private void checkOpen() {
+        if (arena == null) {
+            throw new IllegalStateException("Функция закрыта");
+        }
+    }
+
+    private double x(int i) {
+        return xs.getAtIndex(DOUBLE, i);
+    }
+
+    private double y(int i) {
+        return ys.getAtIndex(DOUBLE, i);
+    }
+
+    //Методы интерфейса TabulatedFunction
+
+    public int getPointsCount() {
+        checkOpen();
+        return pointsCount;
+    }
+
+    public FunctionPoint getPoint(int index) throws FunctionPointIndexOutOfBoundsException {
+        checkIndex(index);
+        return new FunctionPoint(x(index), y(index));
+    }
+
+    public void getPoint(int index, FunctionPoint holder) throws FunctionPointIndexOutOfBoundsException {
+        checkIndex(index);
+        holder.setter_x(x(index));
+        holder.setter_y(y(index));
+    }
+
+    public int copyPoints(double[] xs, double[] ys) {
+        checkOpen();
+        if (pointsCount > xs.length || pointsCount > ys.length) {
+            throw new IndexOutOfBoundsException("Диапазон выходит за границы массива");
+        }
+        MemorySegment.copy(this.xs, DOUBLE, 0, xs, 0, pointsCount);
+        MemorySegment.copy(this.ys, DOUBLE, 0, ys, 0, pointsCount);
+        return pointsCount;
+    }
+
+    public void forEachPoint(PointConsumer action) {
+        checkOpen();
+        for (int i = 0; i < pointsCount; i++) {
+            action.accept(x(i), y(i));
+        }
+    }
+
+    public void setPoint(int index, FunctionPoint point)
+            throws FunctionPointIndexOutOfBoundsException, InappropriateFunctionPointException {
+        checkIndex(index);
+        checkNeighbours(index, point.getter_x());
+        xs.setAtIndex(DOUBLE, index, point.getter_x());
+        ys.setAtIndex(DOUBLE, index, point.getter_y());
+    }
+
+    public double getPointX(int index) throws FunctionPointIndexOutOfBoundsException {
+        checkIndex(index);
+        return x(index);
+    }
+
+    public void setPointX(int index, double x)
+            throws FunctionPointIndexOutOfBoundsException, InappropriateFunctionPointException {
+        checkIndex(index);
+        checkNeighbours(index, x);
+        xs.setAtIndex(DOUBLE, index, x);
+    }
+
+    public double getPointY(int index) throws FunctionPointIndexOutOfBoundsException {
+        checkIndex(index);
+        return y(index);
+    }
+
+    public void setPointY(int index, double y) throws FunctionPointIndexOutOfBoundsException {
+        checkIndex(index);
+        ys.setAtIndex(DOUBLE, index, y);
+    }
+
+    public void deletePoint(int index) throws FunctionPointIndexOutOfBoundsException {
+        checkIndex(index);
+        if (pointsCount < 3) {
+            throw new IllegalStateException("Количество точек меньше 3");
+        }
+        // сдвиг хвоста влево (MemorySegment.copy корректно обрабатывает перекрытие)
+        long tail = (pointsCount - index - 1) * BYTES;
+        MemorySegment.copy(xs, (index + 1) * BYTES, xs, index * BYTES, tail);
+        MemorySegment.copy(ys, (index + 1) * BYTES, ys, index * BYTES, tail);
+        pointsCount--;
+
+        // если занято меньше четверти, память возвращается системе
+        if (capacity > 64 && pointsCount < capacity / 4) {
+            reallocate(pointsCount * 2);
+        }
+    }
+
+    public void addPoint(FunctionPoint point) throws InappropriateFunctionPointException {
+        checkOpen();
+        double x = point.getter_x();
+
+        // позиция для вставки (бинарный поиск первой точки с абсциссой >= x)
+        int low = 0;
+        int high = pointsCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (x(mid) < x) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+
+        // если точка с такой координатой x уже есть
+        if ((low < pointsCount && ArrayTabulatedFunction.Comparison(x(low), x))
+                || (low > 0 && ArrayTabulatedFunction.Comparison(x(low - 1), x))) {
+            throw new InappropriateFunctionPointException("Точка с такой координатой x уже есть");
+        }
+
+        // если места не хватает, увеличиваем ёмкость в 2 раза
+        if (pointsCount == capacity) {
+            reallocate(capacity * 2 + 1);
+        }
+
+        // двигаем точки вправо чтобы освободить место
+        long tail = (pointsCount - low) * BYTES;
+        MemorySegment.copy(xs, low * BYTES, xs, (low + 1) * BYTES, tail);
+        MemorySegment.copy(ys, low * BYTES, ys, (low + 1) * BYTES, tail);
+
+        xs.setAtIndex(DOUBLE, low, x);
+        ys.setAtIndex(DOUBLE, low, point.getter_y());
+        pointsCount++;
+    }
+
+    public double getLeftDomainBorder() {
+        checkOpen();
+        return x(0);
+    }
+
+    public double getRightDomainBorder() {
+        checkOpen();
+        return x(pointsCount - 1);
+    }
+
+    // Сегменты общей арены можно читать из любого потока, копия не нужна.
+    // Как и для самой функции, закрывать её до окончания чтения нельзя
+    public TabulatedFunction readSafe() {
+        return this;
+    }
+
+    public double getFunctionValue(double x) {
+        checkOpen();
+        if (!(x >= x(0) && x <= x(pointsCount - 1))) {
+            return Double.NaN;
+        }
+
+        // бинарный поиск наибольшей точки с абсциссой <= x
+        int low = 0;
+        int high = pointsCount - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (x(mid) <= x) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        int i = low;
+
+        // Если x совпадает с одной из точек
+        if (ArrayTabulatedFunction.Comparison(x, x(i))) {
+            while (i > 0 && ArrayTabulatedFunction.Comparison(x, x(i - 1))) {
+                i--;
+            }
+            return y(i);
+        }
+        if (i == pointsCount - 1) {
+            return Double.NaN;
+        }
+        if (ArrayTabulatedFunction.Comparison(x, x(i + 1))) {
+            return y(i + 1);
+        }
+
+        // Линейная интерполяция
+        double x1 = x(i);
+        double x2 = x(i + 1);
+        double y1 = y(i);
+        double y2 = y(i + 1);
+        return y1 + (y2 - y1) * (x - x1) / (x2 - x1);
+    }
+
+    private void checkIndex(int index) throws FunctionPointIndexOutOfBoundsException {
+        checkOpen();
+        if (index < 0 || index >= pointsCount) {
+            throw new FunctionPointIndexOutOfBoundsException(index);
+        }
+    }
+
+    // x должен лежать строго между абсциссами соседних точек
+    private void checkNeighbours(int index, double x) throws InappropriateFunctionPointException {
+        if (index > 0 && (x < x(index - 1) || ArrayTabulatedFunction.Comparison(x, x(index - 1)))) {
+            throw new InappropriateFunctionPointException("X лежит вне определенного интервала");
+        }
+        if (index < pointsCount - 1 && (x > x(index + 1) || ArrayTabulatedFunction.Comparison(x, x(index + 1)))) {
+            throw new InappropriateFunctionPointException("X лежит вне определенного интервала");
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package functions;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.DoubleUnaryOperator;
+
+// Параллельное построение и вычисление табулированных функций.
+// Диапазон рекурсивно делится пополам в общем пуле ForkJoinPool, пока части не станут
+// меньше SEQUENTIAL_THRESHOLD. Небольшие объёмы обрабатываются последовательно
+public class ParallelTabulatedFunctions {
+
+    // Меньше этого количества элементов разбиение на задачи не окупается
+    static final int SEQUENTIAL_THRESHOLD = 1 << 14;
+
+    private interface RangeTask {
+        void run(int from, int to);
+    }
+
+    // Обработка отрезка [from, to): большой отрезок делится пополам, половины выполняются параллельно.
+    // Задача не сериализуется, RecursiveAction лишь наследует Serializable
+    @SuppressWarnings("serial")
+    private static class RangeAction extends RecursiveAction {
+        private final RangeTask task;
+        private final int from;
+        private final int to;
+
+        RangeAction(RangeTask task, int from, int to) {
+            this.task = task;
+            this.from = from;
+            this.to = to;
+        }
+
+        protected void compute() {
+            if (to - from <= SEQUENTIAL_THRESHOLD) {
+                task.run(from, to);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new RangeAction(task, from, middle), new RangeAction(task, middle, to));
+        }
+    }
+
+    private ParallelTabulatedFunctions() {
+    }
+
+    // Табулирование function на [leftX, rightX] с теми же абсциссами, что строит конструктор
+    // ArrayTabulatedFunction(leftX, rightX, pointsCount)
+    public static ArrayTabulatedFunction tabulate(final DoubleUnaryOperator function,
+                                                  final double leftX, double rightX, int pointsCount)
+            throws IllegalArgumentException {
+        if (leftX >= rightX) {
+            throw new IllegalArgumentException("Левая граница области определения больше или равна правой");
+        }
+        if (pointsCount < 2) {
+            throw new IllegalArgumentException("Количество точек меньше 2");
+        }
+
+        final double step = (rightX - leftX) / (pointsCount - 1);
+        final double[] values = new double[pointsCount];
+        parallelFor(pointsCount, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                values[i] = function.applyAsDouble(leftX + i * step);
+            }
+        });
+        return new ArrayTabulatedFunction(leftX, rightX, values);
+    }
+
+    // out[i] = function.getFunctionValue(xs[i]) для всех i.
+    // Функция, которую нельзя читать из нескольких потоков одновременно, заменяется копией
+    // (см. TabulatedFunction.readSafe)
+    public static void getFunctionValues(TabulatedFunction function, final double[] xs, final double[] out) {
+        if (out.length < xs.length) {
+            throw new IndexOutOfBoundsException("Диапазон выходит за границы массива");
+        }
+        if (xs.length < SEQUENTIAL_THRESHOLD) {
+            function.getFunctionValues(xs, out, 0, xs.length);
+            return;
+        }
+
+        final TabulatedFunction target = function.readSafe();
+        parallelFor(xs.length, (from, to) -> target.getFunctionValues(xs, out, from, to - from));
+    }
+
+    // Выполнение task на отрезках, покрывающих [0, length).
+    // Возврат только после завершения всех частей; исключение (в том числе Error) любой части
+    // выбрасывается в вызывающем потоке
+    private static void parallelFor(int length, RangeTask task) {
+        if (length <= SEQUENTIAL_THRESHOLD) {
+            task.run(0, length);
+            return;
+        }
+        ForkJoinPool.commonPool().invoke(new RangeAction(task, 0, length));
+    }
+}
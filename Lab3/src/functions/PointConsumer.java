@@ -0,0 +1,8 @@
+package functions;
+
+// Обработчик точки табулированной функции, получающий координаты без создания FunctionPoint
+@FunctionalInterface
+public interface PointConsumer {
+
+    void accept(double x, double y);
+}
@@ -0,0 +1,181 @@
+package functions;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+// Табулированная функция, записывающая каждое успешное изменение в журнал TabulatedFunctionChangeLog.
+// Изменение сначала применяется к обёрнутой функции и записывается, только если не было исключения.
+// Методы интерфейса не объявляют IOException, поэтому ошибка записи журнала
+// выбрасывается как UncheckedIOException.
+// Если задан порог, журнал сжимается автоматически, когда объём записей изменений его превышает.
+// Сжатие требует семантики переименования POSIX (см. TabulatedFunctionChangeLog), в Windows порог задавать нельзя.
+// После ошибки записи журнал отстаёт от функции, и до compact() методы изменения отказывают,
+// не меняя функцию: иначе расхождение между функцией и журналом только росло бы
+public class RecordingTabulatedFunction implements TabulatedFunction {
+
+    private final TabulatedFunction function;
+    private final TabulatedFunctionChangeLog log;
+    private final long compactionThreshold; // в байтах записей; 0 - сжимать только вручную
+
+    public RecordingTabulatedFunction(TabulatedFunction function, TabulatedFunctionChangeLog log) {
+        this(function, log, 0);
+    }
+
+    public RecordingTabulatedFunction(TabulatedFunction function, TabulatedFunctionChangeLog log,
+                                      long compactionThreshold) {
+        if (compactionThreshold < 0) {
+            throw new IllegalArgumentException("Порог сжатия журнала меньше 0");
+        }
+        this.function = function;
+        this.log = log;
+        this.compactionThreshold = compactionThreshold;
+    }
+
+    public TabulatedFunctionChangeLog getLog() {
+        return log;
+    }
+
+    // Сброс записанных изменений в файл журнала, после чего их увидят реплики
+    public void flush() throws IOException {
+        log.flush();
+    }
+
+    // Замена журнала снимком текущего состояния
+    public void compact() throws IOException {
+        log.compact(function);
+    }
+
+    // Проверка перед изменением: в сломанный журнал изменение всё равно не попадёт
+    private void checkLog() {
+        if (log.isFailed()) {
+            throw new UncheckedIOException(
+                    new IOException("Журнал отстал от функции после ошибки записи, нужно сжатие (compact)"));
+        }
+    }
+
+    private void afterRecord() throws IOException {
+        if (compactionThreshold > 0 && log.getRecordsBytes() > compactionThreshold) {
+            log.compact(function);
+        }
+    }
+
+    //Методы изменения: применение и запись в журнал
+
+    public void setPoint(int index, FunctionPoint point)
+            throws FunctionPointIndexOutOfBoundsException, InappropriateFunctionPointException {
+        checkLog();
+        function.setPoint(index, point);
+        try {
+            log.logSetPoint(index, point.getter_x(), point.getter_y());
+            afterRecord();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void setPointX(int index, double x)
+            throws FunctionPointIndexOutOfBoundsException, InappropriateFunctionPointException {
+        checkLog();
+        function.setPointX(index, x);
+        try {
+            log.logSetPointX(index, x);
+            afterRecord();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void setPointY(int index, double y) throws FunctionPointIndexOutOfBoundsException {
+        checkLog();
+        function.setPointY(index, y);
+        try {
+            log.logSetPointY(index, y);
+            afterRecord();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void deletePoint(int index) throws FunctionPointIndexOutOfBoundsException, IllegalStateException {
+        checkLog();
+        function.deletePoint(index);
+        try {
+            log.logDeletePoint(index);
+            afterRecord();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void addPoint(FunctionPoint point) throws InappropriateFunctionPointException {
+        checkLog();
+        function.addPoint(point);
+        try {
+            log.logAddPoint(point.getter_x(), point.getter_y());
+            afterRecord();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Пачка записывается как отдельные добавления: раз она целиком подошла функции,
+    // каждая её точка по отдельности тоже подойдёт при воспроизведении
+    public void addPoints(double[] xs, double[] ys) throws InappropriateFunctionPointException {
+        checkLog();
+        function.addPoints(xs, ys);
+        try {
+            for (int i = 0; i < xs.length; i++) {
+                log.logAddPoint(xs[i], ys[i]);
+            }
+            afterRecord();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    //Методы чтения делегируются без записи
+
+    public int getPointsCount() {
+        return function.getPointsCount();
+    }
+
+    public FunctionPoint getPoint(int index) throws FunctionPointIndexOutOfBoundsException {
+        return function.getPoint(index);
+    }
+
+    public void getPoint(int index, FunctionPoint holder) throws FunctionPointIndexOutOfBoundsException {
+        function.getPoint(index, holder);
+    }
+
+    public int copyPoints(double[] xs, double[] ys) {
+        return function.copyPoints(xs, ys);
+    }
+
+    public void forEachPoint(PointConsumer action) {
+        function.forEachPoint(action);
+    }
+
+    public double getPointX(int index) throws FunctionPointIndexOutOfBoundsException {
+        return function.getPointX(index);
+    }
+
+    public double getPointY(int index) throws FunctionPointIndexOutOfBoundsException {
+        return function.getPointY(index);
+    }
+
+    public double getLeftDomainBorder() {
+        return function.getLeftDomainBorder();
+    }
+
+    public double getRightDomainBorder() {
+        return function.getRightDomainBorder();
+    }
+
+    public double getFunctionValue(double x) {
+        return function.getFunctionValue(x);
+    }
+
+    public void getFunctionValues(double[] xs, double[] out, int offset, int length) {
+        function.getFunctionValues(xs, out, offset, length);
+    }
+}
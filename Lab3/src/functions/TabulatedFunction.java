@@ -10,6 +10,13 @@ public interface TabulatedFunction {
     void setPoint(int index, FunctionPoint point)
             throws FunctionPointIndexOutOfBoundsException, InappropriateFunctionPointException;
 
+    // Копирование точки в переданный объект вместо создания нового
+    default void getPoint(int index, FunctionPoint holder)
+            throws FunctionPointIndexOutOfBoundsException {
+        holder.setter_x(getPointX(index));
+        holder.setter_y(getPointY(index));
+    }
+
     double getPointX(int index)
             throws FunctionPointIndexOutOfBoundsException;
 
@@ -29,9 +36,95 @@ public interface TabulatedFunction {
     void addPoint(FunctionPoint point)
             throws InappropriateFunctionPointException;
 
+    // Добавление сразу нескольких точек (в любом порядке).
+    // Если хотя бы одна точка не подходит, функция не меняется
+    default void addPoints(double[] xs, double[] ys)
+            throws InappropriateFunctionPointException {
+        double[] addXs = xs.clone();
+        double[] addYs = ys.clone();
+        TabulatedFunctionArrays.sortBatch(addXs, addYs);
+
+        // проверка совпадений с существующими точками одним проходом
+        int count = getPointsCount();
+        int i = 0;
+        for (int k = 0; k < addXs.length; k++) {
+            while (i < count && getPointX(i) < addXs[k]) {
+                i++;
+            }
+            if ((i < count && ArrayTabulatedFunction.Comparison(getPointX(i), addXs[k]))
+                    || (i > 0 && ArrayTabulatedFunction.Comparison(getPointX(i - 1), addXs[k]))) {
+                throw new InappropriateFunctionPointException("Точка с такой координатой x уже есть");
+            }
+        }
+
+        for (int k = 0; k < addXs.length; k++) {
+            addPoint(new FunctionPoint(addXs[k], addYs[k]));
+        }
+    }
+
+    default void addPoints(FunctionPoint[] points)
+            throws InappropriateFunctionPointException {
+        double[] xs = new double[points.length];
+        double[] ys = new double[points.length];
+        for (int i = 0; i < points.length; i++) {
+            xs[i] = points[i].getter_x();
+            ys[i] = points[i].getter_y();
+        }
+        addPoints(xs, ys);
+    }
+
+    // Выгрузка координат всех точек в переданные массивы (первые getPointsCount() элементов).
+    // Возвращает количество выгруженных точек
+    default int copyPoints(double[] xs, double[] ys) {
+        int count = getPointsCount();
+        if (count > xs.length || count > ys.length) {
+            throw new IndexOutOfBoundsException("Диапазон выходит за границы массива");
+        }
+        for (int i = 0; i < count; i++) {
+            xs[i] = getPointX(i);
+            ys[i] = getPointY(i);
+        }
+        return count;
+    }
+
+    // Обход всех точек по возрастанию x без создания объектов FunctionPoint
+    default void forEachPoint(PointConsumer action) {
+        int count = getPointsCount();
+        for (int i = 0; i < count; i++) {
+            action.accept(getPointX(i), getPointY(i));
+        }
+    }
+
     double getLeftDomainBorder();
 
     double getRightDomainBorder();
 
     double getFunctionValue(double x);
+
+    // Пакетное вычисление: out[i] = getFunctionValue(xs[i]) для всех i
+    default void getFunctionValues(double[] xs, double[] out) {
+        getFunctionValues(xs, out, 0, xs.length);
+    }
+
+    // Пакетное вычисление для элементов с номерами offset .. offset + length - 1
+    default void getFunctionValues(double[] xs, double[] out, int offset, int length) {
+        if (offset < 0 || length < 0 || offset + length > xs.length || offset + length > out.length) {
+            throw new IndexOutOfBoundsException("Диапазон выходит за границы массива");
+        }
+        for (int i = offset; i < offset + length; i++) {
+            out[i] = getFunctionValue(xs[i]);
+        }
+    }
+
+    // Функция с теми же значениями, которую можно читать из нескольких потоков одновременно.
+    // По умолчанию - неизменяемая копия точек: так безопасно для любой реализации, в том числе
+    // для тех, что меняют внутреннее состояние при чтении (кэш узла, кэш значений).
+    // Реализации, чтение которых ничего не меняет, возвращают себя
+    default TabulatedFunction readSafe() {
+        int count = getPointsCount();
+        double[] xs = new double[count];
+        double[] ys = new double[count];
+        copyPoints(xs, ys);
+        return new ImmutableTabulatedFunction(xs, ys);
+    }
 }
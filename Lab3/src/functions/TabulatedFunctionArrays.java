@@ -0,0 +1,208 @@
+package functions;
+
+// Общие алгоритмы для табулированных функций, хранящих точки в массивах double
+// (абсциссы строго возрастают, используются первые count элементов)
+final class TabulatedFunctionArrays {
+
+    private TabulatedFunctionArrays() {
+    }
+
+    // Бинарный поиск наибольшей точки с абсциссой <= x
+    static int findIntervalIndex(double[] xs, int count, double x) {
+        int low = 0;
+        int high = count - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (xs[mid] <= x) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    // Шаг сетки, если точки расположены равномерно (с точностью до ошибок округления), иначе NaN
+    static double uniformStep(double[] xs, int count) {
+        double step = (xs[count - 1] - xs[0]) / (count - 1);
+        for (int i = 1; i < count - 1; i++) {
+            if (!(Math.abs(xs[i] - (xs[0] + i * step)) <= step * 1e-6)) {
+                return Double.NaN;
+            }
+        }
+        return step;
+    }
+
+    // Номер интервала на равномерной сетке: вычисляется по шагу и уточняется по самим точкам,
+    // поэтому результат совпадает с бинарным поиском
+    static int findUniformIntervalIndex(double[] xs, int count, double inverseStep, double x) {
+        int i = (int) ((x - xs[0]) * inverseStep);
+        if (i < 0) {
+            i = 0;
+        } else if (i > count - 2) {
+            i = count - 2;
+        }
+        while (i > 0 && xs[i] > x) {
+            i--;
+        }
+        while (i < count - 1 && xs[i + 1] <= x) {
+            i++;
+        }
+        return i;
+    }
+
+    // Пакетное вычисление на равномерной сетке: без поиска, каждый элемент за O(1)
+    // независимо от порядка аргументов
+    static void getFunctionValuesUniform(double[] xs, double[] ys, int count, double inverseStep,
+                                         double[] args, double[] out, int offset, int length) {
+        if (offset < 0 || length < 0 || offset + length > args.length || offset + length > out.length) {
+            throw new IndexOutOfBoundsException("Диапазон выходит за границы массива");
+        }
+
+        double left = xs[0];
+        double right = xs[count - 1];
+        for (int k = offset; k < offset + length; k++) {
+            double x = args[k];
+            out[k] = x >= left && x <= right
+                    ? valueInInterval(xs, ys, count, findUniformIntervalIndex(xs, count, inverseStep, x), x)
+                    : Double.NaN;
+        }
+    }
+
+    // Значение в точке x, если xs[i] <= x < xs[i + 1]
+    static double valueInInterval(double[] xs, double[] ys, int count, int i, double x) {
+        // Если x совпадает с одной из точек
+        if (ArrayTabulatedFunction.Comparison(x, xs[i])) {
+            while (i > 0 && ArrayTabulatedFunction.Comparison(x, xs[i - 1])) {
+                i--;
+            }
+            return ys[i];
+        }
+        if (i == count - 1) {
+            return Double.NaN;
+        }
+        if (ArrayTabulatedFunction.Comparison(x, xs[i + 1])) {
+            return ys[i + 1];
+        }
+
+        // Линейная интерполяция
+        double x1 = xs[i];
+        double x2 = xs[i + 1];
+        double y1 = ys[i];
+        double y2 = ys[i + 1];
+        return y1 + (y2 - y1) * (x - x1) / (x2 - x1);
+    }
+
+    static double getFunctionValue(double[] xs, double[] ys, int count, double x) {
+        if (!(x >= xs[0] && x <= xs[count - 1])) {
+            return Double.NaN;
+        }
+        return valueInInterval(xs, ys, count, findIntervalIndex(xs, count, x), x);
+    }
+
+    // Пакетное вычисление: для возрастающих аргументов интервал ищется сдвигом от предыдущего
+    static void getFunctionValues(double[] xs, double[] ys, int count,
+                                  double[] args, double[] out, int offset, int length) {
+        if (offset < 0 || length < 0 || offset + length > args.length || offset + length > out.length) {
+            throw new IndexOutOfBoundsException("Диапазон выходит за границы массива");
+        }
+
+        double left = xs[0];
+        double right = xs[count - 1];
+        int i = 0;
+        double previous = left;
+
+        for (int k = offset; k < offset + length; k++) {
+            double x = args[k];
+            if (!(x >= left && x <= right)) {
+                out[k] = Double.NaN;
+                continue;
+            }
+
+            if (x >= previous) {
+                int steps = 0;
+                while (i < count - 1 && xs[i + 1] <= x && steps < 8) {
+                    i++;
+                    steps++;
+                }
+                if (i < count - 1 && xs[i + 1] <= x) {
+                    i = findIntervalIndex(xs, count, x);
+                }
+            } else {
+                i = findIntervalIndex(xs, count, x);
+            }
+            previous = x;
+
+            out[k] = valueInInterval(xs, ys, count, i, x);
+        }
+    }
+
+    // Подготовка пачки добавляемых точек: сортировка по x (вместе с ординатами)
+    // и проверка, что в самой пачке нет точек с совпадающими абсциссами
+    static void sortBatch(double[] xs, double[] ys) throws InappropriateFunctionPointException {
+        if (xs.length != ys.length) {
+            throw new IllegalArgumentException("Количество абсцисс и ординат не совпадает");
+        }
+        boolean sorted = true;
+        for (int i = 1; i < xs.length && sorted; i++) {
+            sorted = xs[i - 1] <= xs[i];
+        }
+        if (!sorted) {
+            mergeSort(xs, ys, new double[xs.length], new double[ys.length], 0, xs.length);
+        }
+        for (int i = 1; i < xs.length; i++) {
+            if (ArrayTabulatedFunction.Comparison(xs[i - 1], xs[i])) {
+                throw new InappropriateFunctionPointException("Среди добавляемых точек есть точки с одинаковой координатой x");
+            }
+        }
+    }
+
+    // Сортировка слиянием отрезка [from, to) по абсциссам
+    private static void mergeSort(double[] xs, double[] ys, double[] bufferX, double[] bufferY, int from, int to) {
+        if (to - from < 2) {
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        mergeSort(xs, ys, bufferX, bufferY, from, mid);
+        mergeSort(xs, ys, bufferX, bufferY, mid, to);
+        if (xs[mid - 1] <= xs[mid]) {
+            return;
+        }
+
+        int left = from;
+        int right = mid;
+        for (int k = from; k < to; k++) {
+            if (right == to || (left < mid && xs[left] <= xs[right])) {
+                bufferX[k] = xs[left];
+                bufferY[k] = ys[left++];
+            } else {
+                bufferX[k] = xs[right];
+                bufferY[k] = ys[right++];
+            }
+        }
+        System.arraycopy(bufferX, from, xs, from, to - from);
+        System.arraycopy(bufferY, from, ys, from, to - from);
+    }
+
+    // Слияние упорядоченных точек (первые count элементов xs, ys) с упорядоченной пачкой
+    // в массивы outXs, outYs. Если точка пачки совпадает по x с соседней, выбрасывается исключение
+    static void merge(double[] xs, double[] ys, int count, double[] addXs, double[] addYs,
+                      double[] outXs, double[] outYs) throws InappropriateFunctionPointException {
+        int i = 0;
+        int k = 0;
+        int o = 0;
+        boolean previousFromBatch = false;
+        while (i < count || k < addXs.length) {
+            boolean fromBatch = i == count || (k < addXs.length && addXs[k] < xs[i]);
+            double x = fromBatch ? addXs[k] : xs[i];
+            // совпадение возможно только между соседями, из которых хотя бы один из пачки
+            if (o > 0 && (fromBatch || previousFromBatch) && ArrayTabulatedFunction.Comparison(outXs[o - 1], x)) {
+                throw new InappropriateFunctionPointException("Точка с такой координатой x уже есть");
+            }
+            outXs[o] = x;
+            outYs[o] = fromBatch ? addYs[k++] : ys[i++];
+            previousFromBatch = fromBatch;
+            o++;
+        }
+    }
+}
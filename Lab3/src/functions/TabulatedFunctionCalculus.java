@@ -0,0 +1,94 @@
+package functions;
+
+// Интегрирование и дифференцирование табулированных функций.
+// Точки выгружаются одним проходом через copyPoints, поэтому и для списка, и для дерева
+// каждый метод работает за O(n) без доступа к точкам по номеру.
+// Для многократного интегрирования одной функции - IntegratingTabulatedFunction
+public final class TabulatedFunctionCalculus {
+
+    private TabulatedFunctionCalculus() {
+    }
+
+    // Интеграл кусочно-линейной функции по отрезку [a, b] (при a > b - со знаком минус)
+    public static double integrate(TabulatedFunction function, double a, double b) {
+        int count = function.getPointsCount();
+        double[] xs = new double[count];
+        double[] ys = new double[count];
+        function.copyPoints(xs, ys);
+        checkBounds(xs, count, a, b);
+
+        if (a > b) {
+            return -integrate(xs, ys, count, b, a);
+        }
+        return integrate(xs, ys, count, a, b);
+    }
+
+    private static double integrate(double[] xs, double[] ys, int count, double a, double b) {
+        int first = TabulatedFunctionArrays.findIntervalIndex(xs, count, a);
+        int last = TabulatedFunctionArrays.findIntervalIndex(xs, count, b);
+        double sum = 0;
+        for (int i = first; i < last; i++) {
+            sum += trapezoid(xs, ys, i);
+        }
+        return sum - partialArea(xs, ys, count, first, a) + partialArea(xs, ys, count, last, b);
+    }
+
+    // Первообразная F(x) = интеграл от левой границы до x в тех же узлах
+    public static ArrayTabulatedFunction antiderivative(TabulatedFunction function) {
+        int count = function.getPointsCount();
+        double[] xs = new double[count];
+        double[] ys = new double[count];
+        function.copyPoints(xs, ys);
+
+        double[] integral = new double[count];
+        for (int i = 1; i < count; i++) {
+            integral[i] = integral[i - 1] + trapezoid(xs, ys, i - 1);
+        }
+        return new ArrayTabulatedFunction(xs, integral);
+    }
+
+    // Производная в тех же узлах: во внутренних узлах - взвешенное среднее наклонов соседних
+    // интервалов (второй порядок точности и на неравномерной сетке), на концах - наклон крайнего интервала
+    public static ArrayTabulatedFunction derivative(TabulatedFunction function) {
+        int count = function.getPointsCount();
+        double[] xs = new double[count];
+        double[] ys = new double[count];
+        function.copyPoints(xs, ys);
+
+        double[] derivative = new double[count];
+        double previousSlope = (ys[1] - ys[0]) / (xs[1] - xs[0]);
+        derivative[0] = previousSlope;
+        for (int i = 1; i < count - 1; i++) {
+            double h1 = xs[i] - xs[i - 1];
+            double h2 = xs[i + 1] - xs[i];
+            double slope = (ys[i + 1] - ys[i]) / h2;
+            derivative[i] = (h2 * previousSlope + h1 * slope) / (h1 + h2);
+            previousSlope = slope;
+        }
+        derivative[count - 1] = previousSlope;
+        return new ArrayTabulatedFunction(xs, derivative);
+    }
+
+    //Общие вычисления для IntegratingTabulatedFunction
+
+    static void checkBounds(double[] xs, int count, double a, double b) {
+        if (!(a >= xs[0] && a <= xs[count - 1] && b >= xs[0] && b <= xs[count - 1])) {
+            throw new IllegalArgumentException("Отрезок интегрирования выходит за область определения");
+        }
+    }
+
+    // Площадь трапеции на интервале [xs[i], xs[i + 1]]
+    static double trapezoid(double[] xs, double[] ys, int i) {
+        return (xs[i + 1] - xs[i]) * (ys[i] + ys[i + 1]) / 2;
+    }
+
+    // Интеграл по [xs[i], x], где xs[i] <= x <= xs[i + 1]
+    static double partialArea(double[] xs, double[] ys, int count, int i, double x) {
+        if (i == count - 1 || x == xs[i]) {
+            return 0;
+        }
+        double t = x - xs[i];
+        double y = ys[i] + (ys[i + 1] - ys[i]) * t / (xs[i + 1] - xs[i]);
+        return t * (ys[i] + y) / 2;
+    }
+}
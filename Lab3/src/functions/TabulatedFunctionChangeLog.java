@@ -0,0 +1,500 @@
+package functions;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+// Журнал изменений табулированной функции: снимок и дописываемые после него записи изменений.
+// Реплики читают снимок один раз, а дальше применяют только новые записи (Follower).
+//
+// Формат файла (все числа little-endian):
+//   0  .. 3   - сигнатура "TABL"
+//   4         - версия формата (1)
+//   5  .. 7   - зарезервировано (0)
+//   8  .. 15  - long, поколение журнала (увеличивается при каждом сжатии)
+//   далее снимок функции в формате TabulatedFunctionWriter, затем записи изменений:
+//   1 SET_POINT    int index, double x, double y
+//   2 SET_POINT_X  int index, double x
+//   3 SET_POINT_Y  int index, double y
+//   4 ADD_POINT    double x, double y
+//   5 DELETE_POINT int index
+//   6 COMPACTED    - журнал сжат, актуальные данные - в новом файле по тому же пути
+//
+// Сжатие (compact) записывает снимок текущего состояния во временный файл и атомарно подменяет им журнал.
+// Для этого нужна семантика переименования POSIX: файл заменяется, пока старый ещё открыт
+// (этим объектом и читателями). В Windows такое переименование завершается AccessDeniedException,
+// поэтому там журнал можно только дописывать, без сжатия.
+// Записи попадают в файл при flush(); запись журнала - из одного потока.
+//
+// После ошибки записи журнал отстаёт от функции: часть изменений в него не попала, а следующие записи
+// ссылаются на номера точек и применялись бы у реплик не к тем точкам. Поэтому после любой ошибки
+// ввода-вывода журнал помечается как сломанный (isFailed) и не принимает записей, пока compact()
+// не запишет свежий снимок.
+// Если писатель завершился между подменой файла и отметкой COMPACTED, Follower всё равно переходит
+// на новый файл: когда новых записей нет, он сверяет поколение в заголовке файла по тому же пути
+public class TabulatedFunctionChangeLog implements AutoCloseable {
+
+    static final byte[] SIGNATURE = {'T', 'A', 'B', 'L'};
+    static final byte VERSION = 1;
+    static final int HEADER_SIZE = 16;
+
+    static final byte SET_POINT = 1;
+    static final byte SET_POINT_X = 2;
+    static final byte SET_POINT_Y = 3;
+    static final byte ADD_POINT = 4;
+    static final byte DELETE_POINT = 5;
+    static final byte COMPACTED = 6;
+
+    private final Path path;
+    private FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+    private long generation;
+    private long recordsBytes; // объём записей изменений после снимка, включая ещё не сброшенные
+    private long flushedEnd;   // конец последней целиком записанной записи в файле
+    private boolean failed;    // была ошибка записи, журнал отстал от функции
+
+    private TabulatedFunctionChangeLog(Path path, FileChannel channel, long generation, long recordsBytes)
+            throws IOException {
+        this.path = path;
+        this.channel = channel;
+        this.generation = generation;
+        this.recordsBytes = recordsBytes;
+        this.flushedEnd = channel.position();
+    }
+
+    // Новый журнал со снимком функции (существующий файл перезаписывается)
+    public static TabulatedFunctionChangeLog create(Path path, TabulatedFunction function) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            writeSnapshot(channel, 1, function);
+            return new TabulatedFunctionChangeLog(path, channel, 1, 0);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    // Продолжение записи в существующий журнал.
+    // Если писатель аварийно завершился посреди записи, оборванная запись отрезается,
+    // иначе все следующие записи читались бы со сдвигом
+    public static TabulatedFunctionChangeLog open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            long generation = readGeneration(channel);
+            long recordsStart = recordsStart(channel);
+            long end = completeRecordsEnd(channel, recordsStart);
+            if (end < channel.size()) {
+                channel.truncate(end);
+            }
+            channel.position(end);
+            return new TabulatedFunctionChangeLog(path, channel, generation, end - recordsStart);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public long getGeneration() {
+        return generation;
+    }
+
+    // Объём записей изменений после снимка в байтах: по нему удобно решать, когда сжимать журнал
+    public long getRecordsBytes() {
+        return recordsBytes;
+    }
+
+    // true, если после ошибки записи журнал отстал от функции; записи снова принимаются после compact()
+    public boolean isFailed() {
+        return failed;
+    }
+
+    //Запись изменений
+
+    public void logSetPoint(int index, double x, double y) throws IOException {
+        reserve(21);
+        buffer.put(SET_POINT).putInt(index).putDouble(x).putDouble(y);
+        recordsBytes += 21;
+    }
+
+    public void logSetPointX(int index, double x) throws IOException {
+        reserve(13);
+        buffer.put(SET_POINT_X).putInt(index).putDouble(x);
+        recordsBytes += 13;
+    }
+
+    public void logSetPointY(int index, double y) throws IOException {
+        reserve(13);
+        buffer.put(SET_POINT_Y).putInt(index).putDouble(y);
+        recordsBytes += 13;
+    }
+
+    public void logAddPoint(double x, double y) throws IOException {
+        reserve(17);
+        buffer.put(ADD_POINT).putDouble(x).putDouble(y);
+        recordsBytes += 17;
+    }
+
+    public void logDeletePoint(int index) throws IOException {
+        reserve(5);
+        buffer.put(DELETE_POINT).putInt(index);
+        recordsBytes += 5;
+    }
+
+    private void reserve(int bytes) throws IOException {
+        if (failed) {
+            throw new IOException("Журнал отстал от функции после ошибки записи, нужно сжатие (compact)");
+        }
+        if (buffer.remaining() < bytes) {
+            flush();
+        }
+    }
+
+    // Запись накопленных изменений в файл.
+    // При ошибке несброшенные записи отбрасываются (их заменит снимок при compact()), а журнал помечается
+    // как сломанный; буфер в любом случае возвращается в режим записи
+    public void flush() throws IOException {
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            flushedEnd = channel.position();
+        } catch (IOException e) {
+            failed = true;
+            throw e;
+        } finally {
+            buffer.clear();
+        }
+    }
+
+    // Замена журнала снимком текущего состояния функции.
+    // Новый файл сбрасывается на диск и подменяет старый атомарно (нужна семантика переименования POSIX),
+    // после чего в старый дописывается отметка COMPACTED, по которой читатели переходят на новый файл.
+    // Это единственный способ вернуть в работу журнал после ошибки записи
+    public void compact(TabulatedFunction function) throws IOException {
+        if (failed) {
+            // снимок содержит все изменения, в том числе не попавшие в журнал
+            buffer.clear();
+        } else {
+            flush();
+        }
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        FileChannel next = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            writeSnapshot(next, generation + 1, function);
+            // иначе после сбоя по пути журнала мог бы оказаться пустой или недописанный снимок
+            next.force(true);
+            Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            next.close();
+            throw e;
+        }
+
+        try {
+            if (failed) {
+                // отметка не должна оказаться после оборванной записи
+                channel.truncate(flushedEnd);
+                channel.position(flushedEnd);
+            }
+            buffer.put(COMPACTED);
+            flush();
+        } catch (IOException e) {
+            // новый файл уже на месте, а читатели найдут его по поколению в заголовке
+        } finally {
+            channel.close();
+            channel = next;
+            generation++;
+            recordsBytes = 0;
+            flushedEnd = next.position();
+            failed = false;
+        }
+    }
+
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+    //Чтение журнала
+
+    // Функция из снимка журнала (без применения записей изменений)
+    public static ArrayTabulatedFunction readSnapshot(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            readGeneration(channel);
+            return new TabulatedFunctionReader(channel).readArrayTabulatedFunction();
+        }
+    }
+
+    // Применение всех записей изменений журнала к функции, совпадающей со снимком журнала.
+    // Возвращает количество применённых записей
+    public static int replay(Path path, TabulatedFunction target) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            readGeneration(channel);
+            channel.position(recordsStart(channel));
+            ByteBuffer records = ByteBuffer.allocateDirect(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+            int applied = 0;
+            while (true) {
+                int read = channel.read(records);
+                records.flip();
+                int count = apply(records, target);
+                if (count < 0) {
+                    return applied - count - 1;
+                }
+                applied += count;
+                records.compact();
+                // незавершённая запись в конце - журнал ещё дописывается, она будет применена позже
+                if (read < 0) {
+                    return applied;
+                }
+            }
+        }
+    }
+
+    // Применение целых записей из буфера. Незавершённая запись в конце остаётся в буфере.
+    // Возвращает количество применённых записей, а если встретилась отметка COMPACTED -
+    // -(количество записей перед ней + 1)
+    private static int apply(ByteBuffer records, TabulatedFunction target) throws IOException {
+        int applied = 0;
+        while (records.hasRemaining()) {
+            int start = records.position();
+            byte type = records.get(start);
+            int size = recordSize(type);
+            if (size < 0) {
+                throw new IOException("Неизвестный тип записи в журнале: " + type);
+            }
+            if (records.remaining() < size) {
+                break;
+            }
+            records.get();
+            try {
+                switch (type) {
+                    case SET_POINT: {
+                        int index = records.getInt();
+                        double x = records.getDouble();
+                        double y = records.getDouble();
+                        target.setPoint(index, new FunctionPoint(x, y));
+                        break;
+                    }
+                    case SET_POINT_X: {
+                        int index = records.getInt();
+                        target.setPointX(index, records.getDouble());
+                        break;
+                    }
+                    case SET_POINT_Y: {
+                        int index = records.getInt();
+                        target.setPointY(index, records.getDouble());
+                        break;
+                    }
+                    case ADD_POINT: {
+                        double x = records.getDouble();
+                        double y = records.getDouble();
+                        target.addPoint(new FunctionPoint(x, y));
+                        break;
+                    }
+                    case DELETE_POINT:
+                        target.deletePoint(records.getInt());
+                        break;
+                    case COMPACTED:
+                        return -(applied + 1);
+                }
+            } catch (InappropriateFunctionPointException | FunctionPointIndexOutOfBoundsException
+                     | IllegalStateException e) {
+                throw new IOException("Журнал не соответствует функции", e);
+            }
+            applied++;
+        }
+        return applied;
+    }
+
+    // Конец последней целой записи после снимка (оборванная запись в конце не учитывается)
+    private static long completeRecordsEnd(FileChannel channel, long recordsStart) throws IOException {
+        ByteBuffer records = ByteBuffer.allocateDirect(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+        channel.position(recordsStart);
+        long end = recordsStart;
+        while (true) {
+            int read = channel.read(records);
+            records.flip();
+            while (records.hasRemaining()) {
+                byte type = records.get(records.position());
+                int size = recordSize(type);
+                if (size < 0) {
+                    throw new IOException("Неизвестный тип записи в журнале: " + type);
+                }
+                if (type == COMPACTED) {
+                    throw new IOException("Журнал уже сжат, актуальные данные - в новом файле");
+                }
+                if (records.remaining() < size) {
+                    break;
+                }
+                records.position(records.position() + size);
+                end += size;
+            }
+            records.compact();
+            if (read < 0) {
+                return end;
+            }
+        }
+    }
+
+    private static int recordSize(byte type) {
+        switch (type) {
+            case SET_POINT:
+                return 21;
+            case SET_POINT_X:
+            case SET_POINT_Y:
+                return 13;
+            case ADD_POINT:
+                return 17;
+            case DELETE_POINT:
+                return 5;
+            case COMPACTED:
+                return 1;
+            default:
+                return -1;
+        }
+    }
+
+    //Заголовок и снимок
+
+    private static void writeSnapshot(FileChannel channel, long generation, TabulatedFunction function)
+            throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        header.put(SIGNATURE);
+        header.put(VERSION);
+        header.put((byte) 0);
+        header.putShort((short) 0);
+        header.putLong(generation);
+        header.flip();
+        while (header.hasRemaining()) {
+            channel.write(header);
+        }
+        // writer не закрывается: он закрыл бы канал журнала
+        TabulatedFunctionWriter writer = new TabulatedFunctionWriter(channel);
+        writer.write(function);
+        writer.flush();
+    }
+
+    // Проверка заголовка журнала с начала файла; канал остаётся на начале снимка
+    private static long readGeneration(FileChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        channel.position(0);
+        readFully(channel, header);
+        for (int i = 0; i < SIGNATURE.length; i++) {
+            if (header.get() != SIGNATURE[i]) {
+                throw new IOException("Файл не является журналом изменений");
+            }
+        }
+        byte version = header.get();
+        if (version != VERSION) {
+            throw new IOException("Неподдерживаемая версия формата: " + version);
+        }
+        return header.getLong(8);
+    }
+
+    // Смещение первой записи изменений: сразу после снимка
+    private static long recordsStart(FileChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(TabulatedFunctionWriter.HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        channel.position(HEADER_SIZE);
+        readFully(channel, header);
+        boolean uniform = (header.get(5) & TabulatedFunctionWriter.FLAG_UNIFORM) != 0;
+        long count = header.getLong(8);
+        long start = HEADER_SIZE + TabulatedFunctionWriter.HEADER_SIZE + (uniform ? 16 : 8 * count) + 8 * count;
+        if (count < 2 || start > channel.size()) {
+            throw new IOException("Снимок в журнале повреждён");
+        }
+        return start;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer target) throws IOException {
+        while (target.hasRemaining()) {
+            if (channel.read(target) < 0) {
+                throw new IOException("Неожиданный конец файла");
+            }
+        }
+        target.flip();
+    }
+
+    // Реплика функции, которая следит за журналом: читает снимок и затем только новые записи.
+    // После сжатия журнала автоматически перечитывает снимок из нового файла
+    public static class Follower implements AutoCloseable {
+
+        private final Path path;
+        private final ByteBuffer records = ByteBuffer.allocateDirect(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+        private FileChannel channel;
+        private ArrayTabulatedFunction function;
+        private long generation;
+
+        public Follower(Path path) throws IOException {
+            this.path = path;
+            reload();
+        }
+
+        // Текущее состояние реплики; после сжатия журнала poll() заменяет объект новым
+        public ArrayTabulatedFunction getFunction() {
+            return function;
+        }
+
+        public long getGeneration() {
+            return generation;
+        }
+
+        // Применение новых записей журнала. Возвращает true, если функция изменилась
+        public boolean poll() throws IOException {
+            boolean changed = false;
+            while (true) {
+                int read = channel.read(records);
+                records.flip();
+                int count = apply(records, function);
+                if (count < 0) {
+                    reload();
+                    changed = true;
+                    continue;
+                }
+                changed |= count > 0;
+                records.compact();
+                if (read <= 0) {
+                    // отметки COMPACTED может не быть (писатель завершился сразу после подмены файла)
+                    if (count == 0 && replaced()) {
+                        reload();
+                        changed = true;
+                        continue;
+                    }
+                    // прочитано всё, что есть; незавершённая запись ждёт в буфере следующего вызова
+                    return changed;
+                }
+            }
+        }
+
+        // true, если по пути журнала уже лежит файл другого поколения
+        private boolean replaced() throws IOException {
+            try (FileChannel current = FileChannel.open(path, StandardOpenOption.READ)) {
+                return readGeneration(current) != generation;
+            }
+        }
+
+        private void reload() throws IOException {
+            if (channel != null) {
+                channel.close();
+            }
+            records.clear();
+            channel = FileChannel.open(path, StandardOpenOption.READ);
+            generation = readGeneration(channel);
+            function = new TabulatedFunctionReader(channel).readArrayTabulatedFunction();
+            channel.position(recordsStart(channel));
+        }
+
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
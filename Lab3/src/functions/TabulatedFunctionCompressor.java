@@ -0,0 +1,74 @@
+package functions;
+
+// Прореживание табулированной функции с гарантированной точностью.
+// Из исходных точек оставляется подмножество (крайние точки сохраняются всегда) так, чтобы
+// кусочно-линейная функция по оставшимся точкам отличалась от исходной не более чем на maxError.
+// Разность двух кусочно-линейных функций линейна между исходными абсциссами, поэтому
+// достаточно проверять отклонение только в исходных точках
+public class TabulatedFunctionCompressor {
+
+    private TabulatedFunctionCompressor() {
+    }
+
+    // Жадный проход за O(n): от текущей опорной точки a отрезок продлевается, пока существует
+    // наклон, проходящий через полосы [y_k - maxError, y_k + maxError] всех промежуточных точек.
+    // Допустимые наклоны образуют отрезок [low, high], который сужается с каждой точкой;
+    // концом участка выбирается последняя точка, наклон на которую попал в этот отрезок.
+    // Результат не обязательно минимален, но близок к нему на гладких и зашумлённых данных
+    public static ArrayTabulatedFunction compress(TabulatedFunction function, double maxError) {
+        if (!(maxError >= 0)) {
+            throw new IllegalArgumentException("Допустимая погрешность должна быть неотрицательной");
+        }
+
+        int n = function.getPointsCount();
+        double[] xs = new double[n];
+        double[] ys = new double[n];
+        for (int i = 0; i < n; i++) {
+            xs[i] = function.getPointX(i);
+            ys[i] = function.getPointY(i);
+        }
+
+        // номера оставляемых точек
+        int[] kept = new int[n];
+        int keptCount = 0;
+        kept[keptCount++] = 0;
+
+        int anchor = 0;
+        while (anchor < n - 1) {
+            double low = Double.NEGATIVE_INFINITY;
+            double high = Double.POSITIVE_INFINITY;
+            int end = anchor + 1; // соседняя точка подходит всегда
+
+            for (int j = anchor + 1; j < n; j++) {
+                double dx = xs[j] - xs[anchor];
+                double slope = (ys[j] - ys[anchor]) / dx;
+                if (slope >= low && slope <= high) {
+                    end = j;
+                }
+                // сужаем допустимые наклоны с учётом точки j как промежуточной
+                low = Math.max(low, (ys[j] - maxError - ys[anchor]) / dx);
+                high = Math.min(high, (ys[j] + maxError - ys[anchor]) / dx);
+                // просмотр вперёд ограничен длиной уже найденного участка, чтобы весь проход оставался O(n)
+                if (low > high || j - end > end - anchor + 64) {
+                    break;
+                }
+            }
+
+            kept[keptCount++] = end;
+            anchor = end;
+        }
+
+        double[] resultX = new double[keptCount];
+        double[] resultY = new double[keptCount];
+        for (int i = 0; i < keptCount; i++) {
+            resultX[i] = xs[kept[i]];
+            resultY[i] = ys[kept[i]];
+        }
+        return new ArrayTabulatedFunction(resultX, resultY);
+    }
+
+    // Степень сжатия: во сколько раз уменьшилось количество точек
+    public static double compressionRatio(TabulatedFunction original, TabulatedFunction compressed) {
+        return (double) original.getPointsCount() / compressed.getPointsCount();
+    }
+}
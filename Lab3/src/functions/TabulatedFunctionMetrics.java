@@ -0,0 +1,227 @@
+package functions;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+// Метрики работы табулированных функций.
+// Сбор включается свойством JVM -Dfunctions.metrics=true. Флаг - static final константа,
+// поэтому при выключенном сборе JIT выбрасывает проверки вместе с кодом подсчёта.
+// Счётчики общие для всех объектов и потокобезопасны (LongAdder).
+// Снимок значений - snapshot(), экспорт через JMX - register()
+public final class TabulatedFunctionMetrics implements TabulatedFunctionMetricsMBean {
+
+    public static final boolean ENABLED = Boolean.getBoolean("functions.metrics");
+
+    public static final String OBJECT_NAME = "functions:type=TabulatedFunctionMetrics";
+
+    // Операции, длительность которых измеряет InstrumentedTabulatedFunction
+    public enum Operation {
+        GET_FUNCTION_VALUE,
+        GET_FUNCTION_VALUES,
+        GET_POINT,
+        SET_POINT,
+        GET_POINT_X,
+        SET_POINT_X,
+        GET_POINT_Y,
+        SET_POINT_Y,
+        ADD_POINT,
+        ADD_POINTS,
+        DELETE_POINT
+    }
+
+    private static final TabulatedFunctionMetrics INSTANCE = new TabulatedFunctionMetrics();
+
+    // вызовы getNodeByIndex в LinkedListTabulatedFunction и суммарное число пройденных узлов
+    static final LongAdder LINKED_LIST_NODE_LOOKUPS = new LongAdder();
+    static final LongAdder LINKED_LIST_NODES_WALKED = new LongAdder();
+    // обход начат с запомненного lastReadWriteNode, а не с головы
+    static final LongAdder LINKED_LIST_CACHE_HITS = new LongAdder();
+    // перевыделения массива при добавлении точки
+    static final LongAdder ARRAY_RESIZES = new LongAdder();
+
+    private static final Operation[] OPERATIONS = Operation.values();
+    private static final LatencyHistogram[] LATENCIES = new LatencyHistogram[OPERATIONS.length];
+
+    static {
+        for (int i = 0; i < LATENCIES.length; i++) {
+            LATENCIES[i] = new LatencyHistogram();
+        }
+    }
+
+    private TabulatedFunctionMetrics() {
+    }
+
+    public static TabulatedFunctionMetrics getInstance() {
+        return INSTANCE;
+    }
+
+    public static LatencyHistogram getLatency(Operation operation) {
+        return LATENCIES[operation.ordinal()];
+    }
+
+    static void recordLatency(Operation operation, long startNanos) {
+        LATENCIES[operation.ordinal()].record(System.nanoTime() - startNanos);
+    }
+
+    // Регистрация в платформенном MBeanServer; повторная регистрация ничего не делает
+    public static void register() throws JMException {
+        ObjectName name = new ObjectName(OBJECT_NAME);
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        if (!server.isRegistered(name)) {
+            server.registerMBean(INSTANCE, name);
+        }
+    }
+
+    public static void unregister() throws JMException {
+        ObjectName name = new ObjectName(OBJECT_NAME);
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        if (server.isRegistered(name)) {
+            server.unregisterMBean(name);
+        }
+    }
+
+    public static Snapshot snapshot() {
+        return new Snapshot();
+    }
+
+    // Неизменяемый снимок всех метрик для передачи в произвольную систему мониторинга.
+    // Значения разных счётчиков снимаются не атомарно относительно друг друга
+    public static final class Snapshot {
+
+        private final long linkedListNodeLookups;
+        private final long linkedListNodesWalked;
+        private final long linkedListCacheHits;
+        private final long arrayResizes;
+        private final long[][] latencyBuckets;
+        private final long[] latencyTotalNanos;
+
+        private Snapshot() {
+            linkedListNodeLookups = LINKED_LIST_NODE_LOOKUPS.sum();
+            linkedListNodesWalked = LINKED_LIST_NODES_WALKED.sum();
+            linkedListCacheHits = LINKED_LIST_CACHE_HITS.sum();
+            arrayResizes = ARRAY_RESIZES.sum();
+            latencyBuckets = new long[OPERATIONS.length][];
+            latencyTotalNanos = new long[OPERATIONS.length];
+            for (int i = 0; i < OPERATIONS.length; i++) {
+                latencyBuckets[i] = LATENCIES[i].getBucketCounts();
+                latencyTotalNanos[i] = LATENCIES[i].getTotalNanos();
+            }
+        }
+
+        public long getLinkedListNodeLookups() {
+            return linkedListNodeLookups;
+        }
+
+        public long getLinkedListNodesWalked() {
+            return linkedListNodesWalked;
+        }
+
+        public long getLinkedListCacheHits() {
+            return linkedListCacheHits;
+        }
+
+        public long getArrayResizes() {
+            return arrayResizes;
+        }
+
+        public long getCount(Operation operation) {
+            long count = 0;
+            for (long c : latencyBuckets[operation.ordinal()]) {
+                count += c;
+            }
+            return count;
+        }
+
+        public long getTotalNanos(Operation operation) {
+            return latencyTotalNanos[operation.ordinal()];
+        }
+
+        // Копия счётчиков корзин гистограммы, границы - LatencyHistogram.getBucketUpperBound
+        public long[] getLatencyBuckets(Operation operation) {
+            return latencyBuckets[operation.ordinal()].clone();
+        }
+
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            sb.append("linkedListNodeLookups=").append(linkedListNodeLookups)
+                    .append(" linkedListNodesWalked=").append(linkedListNodesWalked)
+                    .append(" linkedListCacheHits=").append(linkedListCacheHits)
+                    .append(" arrayResizes=").append(arrayResizes);
+            for (Operation operation : OPERATIONS) {
+                long count = getCount(operation);
+                if (count != 0) {
+                    sb.append(' ').append(operation).append("=").append(count)
+                            .append('/').append(getTotalNanos(operation) / count).append("ns");
+                }
+            }
+            return sb.toString();
+        }
+    }
+
+    //Методы TabulatedFunctionMetricsMBean
+
+    public boolean isEnabled() {
+        return ENABLED;
+    }
+
+    public long getLinkedListNodeLookups() {
+        return LINKED_LIST_NODE_LOOKUPS.sum();
+    }
+
+    public long getLinkedListNodesWalked() {
+        return LINKED_LIST_NODES_WALKED.sum();
+    }
+
+    public long getLinkedListCacheHits() {
+        return LINKED_LIST_CACHE_HITS.sum();
+    }
+
+    public long getArrayResizes() {
+        return ARRAY_RESIZES.sum();
+    }
+
+    public String[] getOperationNames() {
+        String[] names = new String[OPERATIONS.length];
+        for (int i = 0; i < OPERATIONS.length; i++) {
+            names[i] = OPERATIONS[i].name();
+        }
+        return names;
+    }
+
+    public long[] getOperationCounts() {
+        long[] counts = new long[OPERATIONS.length];
+        for (int i = 0; i < OPERATIONS.length; i++) {
+            counts[i] = LATENCIES[i].getCount();
+        }
+        return counts;
+    }
+
+    public double[] getOperationMeanNanos() {
+        double[] means = new double[OPERATIONS.length];
+        for (int i = 0; i < OPERATIONS.length; i++) {
+            means[i] = LATENCIES[i].getMeanNanos();
+        }
+        return means;
+    }
+
+    public long[] getOperationP99Nanos() {
+        long[] percentiles = new long[OPERATIONS.length];
+        for (int i = 0; i < OPERATIONS.length; i++) {
+            percentiles[i] = LATENCIES[i].getPercentileNanos(0.99);
+        }
+        return percentiles;
+    }
+
+    public void reset() {
+        LINKED_LIST_NODE_LOOKUPS.reset();
+        LINKED_LIST_NODES_WALKED.reset();
+        LINKED_LIST_CACHE_HITS.reset();
+        ARRAY_RESIZES.reset();
+        for (LatencyHistogram histogram : LATENCIES) {
+            histogram.reset();
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package functions;
+
+// Интерфейс для экспорта метрик табулированных функций через JMX
+public interface TabulatedFunctionMetricsMBean {
+
+    boolean isEnabled();
+
+    long getLinkedListNodeLookups();
+
+    long getLinkedListNodesWalked();
+
+    long getLinkedListCacheHits();
+
+    long getArrayResizes();
+
+    String[] getOperationNames();
+
+    long[] getOperationCounts();
+
+    double[] getOperationMeanNanos();
+
+    long[] getOperationP99Nanos();
+
+    void reset();
+}
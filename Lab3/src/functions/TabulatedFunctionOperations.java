@@ -0,0 +1,221 @@
+package functions;
+
+// Арифметика и композиция табулированных функций.
+// Результат строится одним проходом по объединённому упорядоченному списку узлов обеих функций
+// (значения в узлах вычисляются сдвигом по интервалам, без поиска для каждого узла),
+// поэтому сумма и произведение функций из n и m точек строятся за O(n + m).
+// Методы sum, multiply, compose, scale, shift возвращают новую ArrayTabulatedFunction,
+// методы ...View - ленивое представление CombinedTabulatedFunction
+public final class TabulatedFunctionOperations {
+
+    private TabulatedFunctionOperations() {
+    }
+
+    // f + g на пересечении областей определения, узлы - объединение узлов f и g
+    public static ArrayTabulatedFunction sum(TabulatedFunction f, TabulatedFunction g) {
+        return toArrayTabulatedFunction(combine(f, g, CombinedTabulatedFunction.Kind.SUM));
+    }
+
+    // f * g на пересечении областей определения, узлы - объединение узлов f и g.
+    // Между узлами произведение линейно интерполируется, т.е. это приближение к f(x) * g(x)
+    public static ArrayTabulatedFunction multiply(TabulatedFunction f, TabulatedFunction g) {
+        return toArrayTabulatedFunction(combine(f, g, CombinedTabulatedFunction.Kind.PRODUCT));
+    }
+
+    // f(g(x)) на области определения g. Узлы - узлы g и точки, где g проходит через абсциссы узлов f,
+    // поэтому результат точно совпадает с композицией кусочно-линейных функций
+    public static ArrayTabulatedFunction compose(TabulatedFunction f, TabulatedFunction g) {
+        return toArrayTabulatedFunction(combine(f, g, CombinedTabulatedFunction.Kind.COMPOSITION));
+    }
+
+    // Точки (x * scaleX, y * scaleY); при отрицательном scaleX порядок точек обращается
+    public static ArrayTabulatedFunction scale(TabulatedFunction f, double scaleX, double scaleY) {
+        if (scaleX == 0 || Double.isNaN(scaleX) || Double.isInfinite(scaleX)) {
+            throw new IllegalArgumentException("Недопустимый коэффициент растяжения по x");
+        }
+        int count = f.getPointsCount();
+        double[] xs = new double[count];
+        double[] ys = new double[count];
+        f.copyPoints(xs, ys);
+
+        double[] resultXs = new double[count];
+        double[] resultYs = new double[count];
+        for (int i = 0; i < count; i++) {
+            int k = scaleX > 0 ? i : count - 1 - i;
+            resultXs[k] = xs[i] * scaleX;
+            resultYs[k] = ys[i] * scaleY;
+        }
+        return new ArrayTabulatedFunction(resultXs, resultYs);
+    }
+
+    // Точки (x + shiftX, y + shiftY)
+    public static ArrayTabulatedFunction shift(TabulatedFunction f, double shiftX, double shiftY) {
+        int count = f.getPointsCount();
+        double[] xs = new double[count];
+        double[] ys = new double[count];
+        f.copyPoints(xs, ys);
+        for (int i = 0; i < count; i++) {
+            xs[i] += shiftX;
+            ys[i] += shiftY;
+        }
+        return new ArrayTabulatedFunction(xs, ys);
+    }
+
+    // Ленивые представления: значения вычисляются по операндам при каждом вызове getFunctionValue
+    public static CombinedTabulatedFunction sumView(TabulatedFunction f, TabulatedFunction g) {
+        return new CombinedTabulatedFunction(f, g, CombinedTabulatedFunction.Kind.SUM);
+    }
+
+    public static CombinedTabulatedFunction multiplyView(TabulatedFunction f, TabulatedFunction g) {
+        return new CombinedTabulatedFunction(f, g, CombinedTabulatedFunction.Kind.PRODUCT);
+    }
+
+    public static CombinedTabulatedFunction composeView(TabulatedFunction f, TabulatedFunction g) {
+        return new CombinedTabulatedFunction(f, g, CombinedTabulatedFunction.Kind.COMPOSITION);
+    }
+
+    //Построение узлов
+
+    static ImmutableTabulatedFunction combine(TabulatedFunction f, TabulatedFunction g,
+                                              CombinedTabulatedFunction.Kind kind) {
+        int n = f.getPointsCount();
+        double[] fxs = new double[n];
+        double[] fys = new double[n];
+        f.copyPoints(fxs, fys);
+        int m = g.getPointsCount();
+        double[] gxs = new double[m];
+        double[] gys = new double[m];
+        g.copyPoints(gxs, gys);
+
+        if (kind == CombinedTabulatedFunction.Kind.COMPOSITION) {
+            return composeNodes(fxs, fys, n, gxs, gys, m);
+        }
+
+        double left = Math.max(fxs[0], gxs[0]);
+        double right = Math.min(fxs[n - 1], gxs[m - 1]);
+        if (!(left < right) || ArrayTabulatedFunction.Comparison(left, right)) {
+            throw new IllegalArgumentException("Области определения функций не пересекаются");
+        }
+
+        // слияние узлов: границы пересечения и все узлы строго внутри него,
+        // узлы ближе EPSILON к предыдущему или к правой границе пропускаются
+        double[] xs = new double[n + m + 2];
+        int count = 0;
+        xs[count++] = left;
+        int i = 0;
+        int j = 0;
+        while (i < n || j < m) {
+            double x;
+            if (j >= m || (i < n && fxs[i] <= gxs[j])) {
+                x = fxs[i++];
+            } else {
+                x = gxs[j++];
+            }
+            if (x >= right) {
+                break;
+            }
+            if (x > xs[count - 1] && !ArrayTabulatedFunction.Comparison(x, xs[count - 1])
+                    && !ArrayTabulatedFunction.Comparison(x, right)) {
+                xs[count++] = x;
+            }
+        }
+        xs[count++] = right;
+
+        double[] resultXs = new double[count];
+        System.arraycopy(xs, 0, resultXs, 0, count);
+        double[] fValues = new double[count];
+        double[] resultYs = new double[count];
+        TabulatedFunctionArrays.getFunctionValues(fxs, fys, n, resultXs, fValues, 0, count);
+        TabulatedFunctionArrays.getFunctionValues(gxs, gys, m, resultXs, resultYs, 0, count);
+        for (int k = 0; k < count; k++) {
+            if (kind == CombinedTabulatedFunction.Kind.SUM) {
+                resultYs[k] += fValues[k];
+            } else {
+                resultYs[k] *= fValues[k];
+            }
+        }
+        return new ImmutableTabulatedFunction(resultXs, resultYs);
+    }
+
+    // Узлы f(g(x)): на каждом интервале g линейна, и кусочно-линейная f меняет наклон
+    // только там, где g(x) равна абсциссе узла f. Эти точки находятся бинарным поиском
+    // первого узла f внутри отрезка значений g на интервале, дальше - сдвигом.
+    // Время O(m log n + k), где k - количество узлов результата
+    private static ImmutableTabulatedFunction composeNodes(double[] fxs, double[] fys, int n,
+                                                           double[] gxs, double[] gys, int m) {
+        double fLeft = fxs[0];
+        double fRight = fxs[n - 1];
+        for (int j = 0; j < m; j++) {
+            if (!(gys[j] >= fLeft && gys[j] <= fRight)) {
+                throw new IllegalArgumentException("Значения g выходят за область определения f");
+            }
+        }
+
+        double[] xs = new double[m + 16];
+        double[] ys = new double[m + 16];
+        int count = 0;
+        for (int j = 0; j < m; j++) {
+            if (count + 1 > xs.length) {
+                xs = grow(xs, count);
+                ys = grow(ys, count);
+            }
+            xs[count] = gxs[j];
+            ys[count] = TabulatedFunctionArrays.getFunctionValue(fxs, fys, n, gys[j]);
+            count++;
+            if (j == m - 1) {
+                break;
+            }
+
+            double x1 = gxs[j];
+            double x2 = gxs[j + 1];
+            double a = gys[j];
+            double b = gys[j + 1];
+            if (a == b) {
+                continue;
+            }
+            // узлы f строго между a и b в порядке возрастания x
+            int p = TabulatedFunctionArrays.findIntervalIndex(fxs, n, Math.min(a, b));
+            int last = TabulatedFunctionArrays.findIntervalIndex(fxs, n, Math.max(a, b));
+            if (fxs[p] <= Math.min(a, b)) {
+                p++;
+            }
+            if (fxs[last] >= Math.max(a, b)) {
+                last--;
+            }
+            for (int q = 0; q <= last - p; q++) {
+                int node = a < b ? p + q : last - q;
+                double x = x1 + (x2 - x1) * (fxs[node] - a) / (b - a);
+                if (x > xs[count - 1] && !ArrayTabulatedFunction.Comparison(x, xs[count - 1])
+                        && !ArrayTabulatedFunction.Comparison(x, x2) && x < x2) {
+                    if (count + 1 > xs.length) {
+                        xs = grow(xs, count);
+                        ys = grow(ys, count);
+                    }
+                    xs[count] = x;
+                    ys[count] = fys[node];
+                    count++;
+                }
+            }
+        }
+
+        double[] resultXs = new double[count];
+        double[] resultYs = new double[count];
+        System.arraycopy(xs, 0, resultXs, 0, count);
+        System.arraycopy(ys, 0, resultYs, 0, count);
+        return new ImmutableTabulatedFunction(resultXs, resultYs);
+    }
+
+    private static double[] grow(double[] array, int count) {
+        double[] grown = new double[array.length * 2 + 1];
+        System.arraycopy(array, 0, grown, 0, count);
+        return grown;
+    }
+
+    private static ArrayTabulatedFunction toArrayTabulatedFunction(ImmutableTabulatedFunction nodes) {
+        int count = nodes.getPointsCount();
+        double[] xs = new double[count];
+        double[] ys = new double[count];
+        nodes.copyPoints(xs, ys);
+        return new ArrayTabulatedFunction(xs, ys);
+    }
+}
@@ -0,0 +1,137 @@
+package functions;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Чтение табулированных функций в формате TabulatedFunctionWriter.
+// Числа читаются блоками сразу в массивы double, без промежуточных объектов FunctionPoint
+public class TabulatedFunctionReader implements AutoCloseable {
+
+    // Прочитанные из потока данные одной функции
+    private static class Table {
+        boolean uniform;
+        double leftX;
+        double rightX;
+        double[] xs;
+        double[] ys;
+    }
+
+    private final ReadableByteChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+
+    public TabulatedFunctionReader(ReadableByteChannel channel) {
+        this.channel = channel;
+        buffer.flip(); // буфер изначально пуст
+    }
+
+    public static ArrayTabulatedFunction readArrayTabulatedFunction(Path path) throws IOException {
+        try (TabulatedFunctionReader reader = new TabulatedFunctionReader(FileChannel.open(path, StandardOpenOption.READ))) {
+            return reader.readArrayTabulatedFunction();
+        }
+    }
+
+    public static LinkedListTabulatedFunction readLinkedListTabulatedFunction(Path path) throws IOException {
+        try (TabulatedFunctionReader reader = new TabulatedFunctionReader(FileChannel.open(path, StandardOpenOption.READ))) {
+            return reader.readLinkedListTabulatedFunction();
+        }
+    }
+
+    // Есть ли в потоке ещё одна функция
+    public boolean hasNext() throws IOException {
+        return fill(1);
+    }
+
+    public ArrayTabulatedFunction readArrayTabulatedFunction() throws IOException {
+        Table table = readTable();
+        return table.uniform
+                ? new ArrayTabulatedFunction(table.leftX, table.rightX, table.ys)
+                : new ArrayTabulatedFunction(table.xs, table.ys);
+    }
+
+    public LinkedListTabulatedFunction readLinkedListTabulatedFunction() throws IOException {
+        Table table = readTable();
+        return table.uniform
+                ? new LinkedListTabulatedFunction(table.leftX, table.rightX, table.ys)
+                : new LinkedListTabulatedFunction(table.xs, table.ys);
+    }
+
+    private Table readTable() throws IOException {
+        require(TabulatedFunctionWriter.HEADER_SIZE);
+        for (int i = 0; i < TabulatedFunctionWriter.SIGNATURE.length; i++) {
+            if (buffer.get() != TabulatedFunctionWriter.SIGNATURE[i]) {
+                throw new IOException("Данные не содержат табулированную функцию");
+            }
+        }
+        byte version = buffer.get();
+        if (version != TabulatedFunctionWriter.VERSION) {
+            throw new IOException("Неподдерживаемая версия формата: " + version);
+        }
+        byte flags = buffer.get();
+        buffer.getShort();
+        long count = buffer.getLong();
+        if (count < 2 || count > Integer.MAX_VALUE - 16) {
+            throw new IOException("Неверное количество точек: " + count);
+        }
+
+        Table table = new Table();
+        table.uniform = (flags & TabulatedFunctionWriter.FLAG_UNIFORM) != 0;
+        if (table.uniform) {
+            require(16);
+            table.leftX = buffer.getDouble();
+            table.rightX = buffer.getDouble();
+        } else {
+            table.xs = new double[(int) count];
+            readDoubles(table.xs);
+        }
+        table.ys = new double[(int) count];
+        readDoubles(table.ys);
+        return table;
+    }
+
+    // Чтение массива double блоками из буфера
+    private void readDoubles(double[] target) throws IOException {
+        int done = 0;
+        while (done < target.length) {
+            require(8);
+            int n = Math.min(target.length - done, buffer.remaining() / 8);
+            buffer.asDoubleBuffer().get(target, done, n);
+            buffer.position(buffer.position() + n * 8);
+            done += n;
+        }
+    }
+
+    // В буфере должно быть не меньше bytes байт, иначе данные закончились раньше времени
+    private void require(int bytes) throws IOException {
+        if (!fill(bytes)) {
+            throw new EOFException("Неожиданный конец данных");
+        }
+    }
+
+    // Дочитывает данные, пока в буфере не будет bytes байт; false - если поток закончился раньше
+    private boolean fill(int bytes) throws IOException {
+        if (buffer.remaining() >= bytes) {
+            return true;
+        }
+        buffer.compact();
+        try {
+            while (buffer.position() < bytes) {
+                if (channel.read(buffer) < 0) {
+                    return false;
+                }
+            }
+        } finally {
+            buffer.flip();
+        }
+        return true;
+    }
+
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,251 @@
+package functions;
+
+import java.util.IdentityHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Реестр именованных табулированных функций с атомарной заменой версий.
+// Таблица имён - неизменяемый снимок (упорядоченные массивы) в volatile-поле, а текущая версия
+// каждой функции - в volatile-поле её записи, поэтому чтение не берёт блокировок и никогда не ждёт.
+// Новая версия строится в стороне и публикуется одной записью ссылки (publish под synchronized,
+// чтобы писатели не мешали друг другу); номер версии у каждой функции свой и растёт с каждой публикацией.
+//
+// Опубликованную функцию нельзя изменять: читатели обращаются к ней одновременно.
+// LinkedListTabulatedFunction меняет кэш узла даже при чтении, её нужно публиковать через freeze().
+//
+// Старая версия освобождается, когда её заменили и ею больше никто не пользуется:
+// acquire() выдаёт аренду со счётчиком ссылок, и если функция реализует AutoCloseable
+// (OffHeapTabulatedFunction, MappedTabulatedFunction), она закрывается при возврате последней аренды.
+// Один и тот же объект может входить в несколько живых версий (откат A -> B -> A, публикация под
+// разными именами), поэтому реестр считает живые версии каждого объекта по ссылке и закрывает его,
+// только когда освобождена последняя из них.
+// Ошибка закрытия не выбрасывается (замена или возврат аренды уже выполнены), а передаётся
+// обработчику неперехваченных исключений текущего потока.
+// get() возвращает функцию без аренды - так можно читать только функции в куче, которые освобождает GC
+public final class TabulatedFunctionRegistry {
+
+    // Опубликованная версия функции. Реестр держит одну ссылку на текущую версию, каждая аренда - ещё одну.
+    // Создаётся только под блокировкой реестра
+    private final class Version {
+        final TabulatedFunction function;
+        final long number;
+        final AtomicInteger references = new AtomicInteger(1);
+
+        Version(TabulatedFunction function, long number) {
+            this.function = function;
+            this.number = number;
+            if (function instanceof AutoCloseable) {
+                Integer count = liveVersions.get(function);
+                liveVersions.put(function, count == null ? 1 : count + 1);
+            }
+        }
+
+        // Увеличение счётчика, если версия ещё не освобождена
+        boolean retain() {
+            int count;
+            do {
+                count = references.get();
+                if (count == 0) {
+                    return false;
+                }
+            } while (!references.compareAndSet(count, count + 1));
+            return true;
+        }
+
+        void release() {
+            if (references.decrementAndGet() == 0 && function instanceof AutoCloseable
+                    && releaseInstance(function)) {
+                try {
+                    ((AutoCloseable) function).close();
+                } catch (Exception e) {
+                    Thread thread = Thread.currentThread();
+                    thread.getUncaughtExceptionHandler().uncaughtException(thread,
+                            new IllegalStateException("Не удалось освободить версию функции", e));
+                }
+            }
+        }
+    }
+
+    private static final class Entry {
+        final String name;
+        volatile Version current;
+
+        Entry(String name, Version current) {
+            this.name = name;
+            this.current = current;
+        }
+    }
+
+    // Аренда версии функции: пока она не закрыта, версия не будет освобождена.
+    // Закрывать нужно в том же потоке, в котором получена (лучше через try-with-resources)
+    public static final class Lease implements AutoCloseable {
+        private final String name;
+        private final Version version;
+        private boolean closed;
+
+        private Lease(String name, Version version) {
+            this.name = name;
+            this.version = version;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getVersion() {
+            return version.number;
+        }
+
+        public TabulatedFunction getFunction() {
+            if (closed) {
+                throw new IllegalStateException("Аренда уже закрыта");
+            }
+            return version.function;
+        }
+
+        // Повторный вызов ничего не делает
+        public void close() {
+            if (!closed) {
+                closed = true;
+                version.release();
+            }
+        }
+    }
+
+    // Записи, упорядоченные по имени; массив после публикации не меняется
+    private volatile Entry[] entries = new Entry[0];
+
+    // Количество неосвобождённых версий для каждого закрываемого объекта (по ссылке, а не по equals).
+    // Доступ только под блокировкой реестра
+    private final IdentityHashMap<TabulatedFunction, Integer> liveVersions = new IdentityHashMap<>();
+
+    //Чтение без блокировок
+
+    // Текущая версия функции или null, если имени нет
+    public TabulatedFunction get(String name) {
+        Entry entry = find(entries, name);
+        return entry == null ? null : entry.current.function;
+    }
+
+    // Номер текущей версии или -1, если имени нет
+    public long getVersion(String name) {
+        Entry entry = find(entries, name);
+        return entry == null ? -1 : entry.current.number;
+    }
+
+    // Аренда текущей версии или null, если имени нет
+    public Lease acquire(String name) {
+        while (true) {
+            Entry entry = find(entries, name);
+            if (entry == null) {
+                return null;
+            }
+            Version version = entry.current;
+            if (version.retain()) {
+                return new Lease(name, version);
+            }
+            // версию только что заменили и освободили: повторяем с новой
+        }
+    }
+
+    public int size() {
+        return entries.length;
+    }
+
+    public String[] getNames() {
+        Entry[] snapshot = entries;
+        String[] names = new String[snapshot.length];
+        for (int i = 0; i < snapshot.length; i++) {
+            names[i] = snapshot[i].name;
+        }
+        return names;
+    }
+
+    //Публикация и удаление
+
+    // Публикация новой версии (или первой версии нового имени). Возвращает номер опубликованной версии
+    public long publish(String name, TabulatedFunction function) {
+        if (name == null || function == null) {
+            throw new IllegalArgumentException("Имя и функция не могут быть null");
+        }
+        Version old;
+        long number;
+        synchronized (this) {
+            Entry[] snapshot = entries;
+            int index = indexOf(snapshot, name);
+            if (index >= 0) {
+                Entry entry = snapshot[index];
+                old = entry.current;
+                number = old.number + 1;
+                entry.current = new Version(function, number);
+            } else {
+                old = null;
+                number = 1;
+                int position = -index - 1;
+                Entry[] copy = new Entry[snapshot.length + 1];
+                System.arraycopy(snapshot, 0, copy, 0, position);
+                copy[position] = new Entry(name, new Version(function, number));
+                System.arraycopy(snapshot, position, copy, position + 1, snapshot.length - position);
+                entries = copy;
+            }
+        }
+        // ссылка реестра на старую версию отпускается уже после публикации новой
+        if (old != null) {
+            old.release();
+        }
+        return number;
+    }
+
+    // Удаление имени; текущая версия освобождается после закрытия всех её аренд
+    public boolean remove(String name) {
+        Version old;
+        synchronized (this) {
+            Entry[] snapshot = entries;
+            int index = indexOf(snapshot, name);
+            if (index < 0) {
+                return false;
+            }
+            old = snapshot[index].current;
+            Entry[] copy = new Entry[snapshot.length - 1];
+            System.arraycopy(snapshot, 0, copy, 0, index);
+            System.arraycopy(snapshot, index + 1, copy, index, snapshot.length - index - 1);
+            entries = copy;
+        }
+        old.release();
+        return true;
+    }
+
+    // Версия, содержавшая function, освобождена. true, если других живых версий с этим объектом нет
+    // и его пора закрыть
+    private synchronized boolean releaseInstance(TabulatedFunction function) {
+        int count = liveVersions.get(function);
+        if (count > 1) {
+            liveVersions.put(function, count - 1);
+            return false;
+        }
+        liveVersions.remove(function);
+        return true;
+    }
+
+    private static Entry find(Entry[] snapshot, String name) {
+        int index = indexOf(snapshot, name);
+        return index >= 0 ? snapshot[index] : null;
+    }
+
+    // Бинарный поиск по имени; если имени нет - (-(позиция для вставки) - 1)
+    private static int indexOf(Entry[] snapshot, String name) {
+        int low = 0;
+        int high = snapshot.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int comparison = snapshot[mid].name.compareTo(name);
+            if (comparison < 0) {
+                low = mid + 1;
+            } else if (comparison > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+}
@@ -0,0 +1,108 @@
+package functions;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Запись табулированных функций в двоичный формат. В один поток можно записать несколько функций подряд.
+//
+// Формат одной функции (все числа little-endian):
+//   0  .. 3   - сигнатура "TABF"
+//   4         - версия формата (1)
+//   5         - флаги: бит 0 - равномерная сетка
+//   6  .. 7   - зарезервировано (0)
+//   8  .. 15  - long, количество точек n
+//   далее для равномерной сетки: leftX, rightX и n ординат (double),
+//   иначе: n абсцисс, затем n ординат (double)
+//
+// Равномерная сетка записывается только если абсциссы в точности совпадают с теми,
+// что строят конструкторы по границам (leftX + i * step), поэтому чтение восстанавливает точки без потерь
+public class TabulatedFunctionWriter implements AutoCloseable {
+
+    static final byte[] SIGNATURE = {'T', 'A', 'B', 'F'};
+    static final byte VERSION = 1;
+    static final byte FLAG_UNIFORM = 1;
+    static final int HEADER_SIZE = 16;
+
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+
+    public TabulatedFunctionWriter(WritableByteChannel channel) {
+        this.channel = channel;
+    }
+
+    // Запись в файл (существующий файл перезаписывается)
+    public static void write(Path path, TabulatedFunction function) throws IOException {
+        try (TabulatedFunctionWriter writer = new TabulatedFunctionWriter(FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE))) {
+            writer.write(function);
+        }
+    }
+
+    public void write(TabulatedFunction function) throws IOException {
+        int count = function.getPointsCount();
+        boolean uniform = isUniform(function);
+
+        if (buffer.remaining() < HEADER_SIZE) {
+            flush();
+        }
+        buffer.put(SIGNATURE);
+        buffer.put(VERSION);
+        buffer.put(uniform ? FLAG_UNIFORM : 0);
+        buffer.putShort((short) 0);
+        buffer.putLong(count);
+
+        if (uniform) {
+            putDouble(function.getLeftDomainBorder());
+            putDouble(function.getRightDomainBorder());
+        } else {
+            for (int i = 0; i < count; i++) {
+                putDouble(function.getPointX(i));
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            putDouble(function.getPointY(i));
+        }
+    }
+
+    // Абсциссы в точности такие, какие построит конструктор по границам и количеству точек
+    static boolean isUniform(TabulatedFunction function) {
+        int count = function.getPointsCount();
+        double leftX = function.getLeftDomainBorder();
+        double step = (function.getRightDomainBorder() - leftX) / (count - 1);
+        for (int i = 0; i < count; i++) {
+            if (function.getPointX(i) != leftX + i * step) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void putDouble(double value) throws IOException {
+        if (buffer.remaining() < 8) {
+            flush();
+        }
+        buffer.putDouble(value);
+    }
+
+    // Запись накопленных данных в канал
+    public void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,382 @@
+package functions;
+
+// Табулированная функция на сбалансированном (АВЛ) дереве поиска по абсциссе.
+// В каждом узле хранится размер поддерева, поэтому доступ по номеру, поиск по x,
+// добавление и удаление точки выполняются за O(log n)
+public class TreeTabulatedFunction implements TabulatedFunction {
+
+    // Узел дерева: точка, ссылки на поддеревья, высота и размер поддерева
+    private static class Node {
+        double x;
+        double y;
+        Node left;
+        Node right;
+        int height = 1;
+        int size = 1;
+
+        Node(double x, double y) {
+            this.x = x;
+            this.y = y;
+        }
+    }
+
+    private Node root;
+
+    public TreeTabulatedFunction(double leftX, double rightX, int pointsCount)
+            throws IllegalArgumentException {
+        this(leftX, rightX, new double[Math.max(pointsCount, 0)]);
+    }
+
+    public TreeTabulatedFunction(double leftX, double rightX, double[] values)
+            throws IllegalArgumentException {
+        if (leftX >= rightX) {
+            throw new IllegalArgumentException("Левая граница области определения больше или равна правой");
+        }
+        if (values.length < 2) {
+            throw new IllegalArgumentException("Количество точек меньше 2");
+        }
+
+        double step = (rightX - leftX) / (values.length - 1);
+        double[] xs = new double[values.length];
+        for (int i = 0; i < values.length; i++) {
+            xs[i] = leftX + i * step;
+        }
+        root = build(xs, values, 0, values.length - 1);
+    }
+
+    // Копия любой табулированной функции
+    public TreeTabulatedFunction(TabulatedFunction function) {
+        int count = function.getPointsCount();
+        double[] xs = new double[count];
+        double[] ys = new double[count];
+        for (int i = 0; i < count; i++) {
+            xs[i] = function.getPointX(i);
+            ys[i] = function.getPointY(i);
+        }
+        root = build(xs, ys, 0, count - 1);
+    }
+
+    // Построение идеально сбалансированного дерева по упорядоченным точкам за O(n)
+    private static Node build(double[] xs, double[] ys, int from, int to) {
+        if (from > to) {
+            return null;
+        }
+        int mid = (from + to) >>> 1;
+        Node node = new Node(xs[mid], ys[mid]);
+        node.left = build(xs, ys, from, mid - 1);
+        node.right = build(xs, ys, mid + 1, to);
+        update(node);
+        return node;
+    }
+
+    //Операции с деревом
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static void update(Node node) {
+        node.size = 1 + size(node.left) + size(node.right);
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+    }
+
+    private static Node rotateRight(Node node) {
+        Node left = node.left;
+        node.left = left.right;
+        left.right = node;
+        update(node);
+        update(left);
+        return left;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node right = node.right;
+        node.right = right.left;
+        right.left = node;
+        update(node);
+        update(right);
+        return right;
+    }
+
+    // Восстановление балансировки после изменения одного из поддеревьев
+    private static Node balance(Node node) {
+        update(node);
+        int balance = height(node.left) - height(node.right);
+        if (balance > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (balance < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private static Node insert(Node node, double x, double y) {
+        if (node == null) {
+            return new Node(x, y);
+        }
+        if (x < node.x) {
+            node.left = insert(node.left, x, y);
+        } else {
+            node.right = insert(node.right, x, y);
+        }
+        return balance(node);
+    }
+
+    private static Node delete(Node node, int index) {
+        int leftSize = size(node.left);
+        if (index < leftSize) {
+            node.left = delete(node.left, index);
+        } else if (index > leftSize) {
+            node.right = delete(node.right, index - leftSize - 1);
+        } else {
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+            // заменяем точку узла наименьшей точкой правого поддерева
+            Node min = node.right;
+            while (min.left != null) {
+                min = min.left;
+            }
+            node.x = min.x;
+            node.y = min.y;
+            node.right = delete(node.right, 0);
+        }
+        return balance(node);
+    }
+
+    // Узел по номеру точки
+    private Node getNodeByIndex(int index) throws FunctionPointIndexOutOfBoundsException {
+        if (index < 0 || index >= size(root)) {
+            throw new FunctionPointIndexOutOfBoundsException(index);
+        }
+        Node node = root;
+        while (true) {
+            int leftSize = size(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index > leftSize) {
+                index -= leftSize + 1;
+                node = node.right;
+            } else {
+                return node;
+            }
+        }
+    }
+
+    // Номер наибольшей точки с абсциссой <= x (или -1, если таких нет)
+    private int floorIndex(double x) {
+        Node node = root;
+        int base = 0;
+        int result = -1;
+        while (node != null) {
+            if (node.x <= x) {
+                result = base + size(node.left);
+                base = result + 1;
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return result;
+    }
+
+    //Методы интерфейса TabulatedFunction
+
+    public int getPointsCount() {
+        return size(root);
+    }
+
+    public FunctionPoint getPoint(int index) throws FunctionPointIndexOutOfBoundsException {
+        Node node = getNodeByIndex(index);
+        return new FunctionPoint(node.x, node.y);
+    }
+
+    public void getPoint(int index, FunctionPoint holder) throws FunctionPointIndexOutOfBoundsException {
+        Node node = getNodeByIndex(index);
+        holder.setter_x(node.x);
+        holder.setter_y(node.y);
+    }
+
+    // Выгрузка и обход - симметричный обход дерева за O(n) вместо n поисков по номеру
+    public int copyPoints(double[] xs, double[] ys) {
+        int count = size(root);
+        if (count > xs.length || count > ys.length) {
+            throw new IndexOutOfBoundsException("Диапазон выходит за границы массива");
+        }
+        copyPoints(root, xs, ys, 0);
+        return count;
+    }
+
+    private static int copyPoints(Node node, double[] xs, double[] ys, int index) {
+        while (node != null) {
+            index = copyPoints(node.left, xs, ys, index);
+            xs[index] = node.x;
+            ys[index] = node.y;
+            index++;
+            node = node.right;
+        }
+        return index;
+    }
+
+    public void forEachPoint(PointConsumer action) {
+        forEachPoint(root, action);
+    }
+
+    private static void forEachPoint(Node node, PointConsumer action) {
+        while (node != null) {
+            forEachPoint(node.left, action);
+            action.accept(node.x, node.y);
+            node = node.right;
+        }
+    }
+
+    public void setPoint(int index, FunctionPoint point)
+            throws FunctionPointIndexOutOfBoundsException, InappropriateFunctionPointException {
+        Node node = getNodeByIndex(index);
+        checkNeighbours(index, point.getter_x());
+        node.x = point.getter_x();
+        node.y = point.getter_y();
+    }
+
+    public double getPointX(int index) throws FunctionPointIndexOutOfBoundsException {
+        return getNodeByIndex(index).x;
+    }
+
+    public void setPointX(int index, double x)
+            throws FunctionPointIndexOutOfBoundsException, InappropriateFunctionPointException {
+        Node node = getNodeByIndex(index);
+        checkNeighbours(index, x);
+        node.x = x;
+    }
+
+    public double getPointY(int index) throws FunctionPointIndexOutOfBoundsException {
+        return getNodeByIndex(index).y;
+    }
+
+    public void setPointY(int index, double y) throws FunctionPointIndexOutOfBoundsException {
+        getNodeByIndex(index).y = y;
+    }
+
+    public void deletePoint(int index) throws FunctionPointIndexOutOfBoundsException, IllegalStateException {
+        if (index < 0 || index >= size(root)) {
+            throw new FunctionPointIndexOutOfBoundsException(index);
+        }
+        if (size(root) < 3) {
+            throw new IllegalStateException("Количество точек меньше 3");
+        }
+        root = delete(root, index);
+    }
+
+    public void addPoint(FunctionPoint point) throws InappropriateFunctionPointException {
+        double x = point.getter_x();
+
+        // проверяем соседей будущей точки: ближайшие слева и справа
+        int floor = floorIndex(x);
+        if ((floor >= 0 && ArrayTabulatedFunction.Comparison(getNodeByIndex(floor).x, x))
+                || (floor + 1 < size(root) && ArrayTabulatedFunction.Comparison(getNodeByIndex(floor + 1).x, x))) {
+            throw new InappropriateFunctionPointException("Точка с такой координатой x уже есть");
+        }
+
+        root = insert(root, x, point.getter_y());
+    }
+
+    // Добавление пачки точек: проверка всех точек, затем вставка, O(k log n).
+    // Если хотя бы одна точка не подходит, функция не меняется
+    public void addPoints(double[] xs, double[] ys) throws InappropriateFunctionPointException {
+        double[] addXs = xs.clone();
+        double[] addYs = ys.clone();
+        TabulatedFunctionArrays.sortBatch(addXs, addYs);
+
+        for (int k = 0; k < addXs.length; k++) {
+            int floor = floorIndex(addXs[k]);
+            if ((floor >= 0 && ArrayTabulatedFunction.Comparison(getNodeByIndex(floor).x, addXs[k]))
+                    || (floor + 1 < size(root)
+                    && ArrayTabulatedFunction.Comparison(getNodeByIndex(floor + 1).x, addXs[k]))) {
+                throw new InappropriateFunctionPointException("Точка с такой координатой x уже есть");
+            }
+        }
+
+        for (int k = 0; k < addXs.length; k++) {
+            root = insert(root, addXs[k], addYs[k]);
+        }
+    }
+
+    public double getLeftDomainBorder() {
+        Node node = root;
+        while (node.left != null) {
+            node = node.left;
+        }
+        return node.x;
+    }
+
+    public double getRightDomainBorder() {
+        Node node = root;
+        while (node.right != null) {
+            node = node.right;
+        }
+        return node.x;
+    }
+
+    // Поиск по дереву ничего не перестраивает, копия не нужна
+    public TabulatedFunction readSafe() {
+        return this;
+    }
+
+    public double getFunctionValue(double x) {
+        if (!(x >= getLeftDomainBorder() && x <= getRightDomainBorder())) {
+            return Double.NaN;
+        }
+
+        int i = floorIndex(x);
+        Node node = getNodeByIndex(i);
+
+        // Если x совпадает с одной из точек (берём самую левую из подходящих)
+        if (ArrayTabulatedFunction.Comparison(x, node.x)) {
+            while (i > 0 && ArrayTabulatedFunction.Comparison(x, getNodeByIndex(i - 1).x)) {
+                i--;
+                node = getNodeByIndex(i);
+            }
+            return node.y;
+        }
+        if (i == size(root) - 1) {
+            return Double.NaN;
+        }
+        Node next = getNodeByIndex(i + 1);
+        if (ArrayTabulatedFunction.Comparison(x, next.x)) {
+            return next.y;
+        }
+
+        // Линейная интерполяция
+        return node.y + (next.y - node.y) * (x - node.x) / (next.x - node.x);
+    }
+
+    // x должен лежать строго между абсциссами соседних точек
+    private void checkNeighbours(int index, double x) throws InappropriateFunctionPointException {
+        if (index > 0) {
+            double previous = getNodeByIndex(index - 1).x;
+            if (x < previous || ArrayTabulatedFunction.Comparison(x, previous)) {
+                throw new InappropriateFunctionPointException("X лежит вне определенного интервала");
+            }
+        }
+        if (index < size(root) - 1) {
+            double next = getNodeByIndex(index + 1).x;
+            if (x > next || ArrayTabulatedFunction.Comparison(x, next)) {
+                throw new InappropriateFunctionPointException("X лежит вне определенного интервала");
+            }
+        }
+    }
+}